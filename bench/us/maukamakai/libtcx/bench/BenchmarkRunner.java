@@ -0,0 +1,26 @@
+package us.maukamakai.libtcx.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached so gc.alloc.rate.norm is reported next to every score.
+ *
+ * Compile src and bench together with jmh-core and jmh-generator-annprocess on the classpath, then run this class.
+ * An optional argument restricts the run to benchmarks matching that regex, e.g. "TcxReaderBenchmark".
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName();
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+package us.maukamakai.libtcx.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+import us.maukamakai.libtcx.computed.Haversine;
+import us.maukamakai.libtcx.reader.TcxReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cumulative distance from positions with Haversine's kernel against the textbook formula on Math.sin, Math.cos and
+ * Math.asin, both writing into a preallocated column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HaversineBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    private double[] latitudesDegrees;
+    private double[] longitudesDegrees;
+    private double[] distancesMeters;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path path = TcxGenerator.generate(this.points);
+        ColumnarTrack track = new ColumnarTrack(new TcxReader().read(path));
+        Files.deleteIfExists(path);
+
+        this.latitudesDegrees = new double[track.size()];
+        this.longitudesDegrees = new double[track.size()];
+        this.distancesMeters = new double[track.size()];
+
+        for(int i = 0; i < track.size(); i++) {
+            this.latitudesDegrees[i] = track.getLatitudeDegrees(i);
+            this.longitudesDegrees[i] = track.getLongitudeDegrees(i);
+        }
+    }
+
+    @Benchmark
+    public double[] kernel() {
+        Haversine.cumulativeDistancesMeters(this.latitudesDegrees, this.longitudesDegrees, this.latitudesDegrees.length, this.distancesMeters);
+        return this.distancesMeters;
+    }
+
+    @Benchmark
+    public double[] textbook() {
+        double totalMeters = 0.0;
+        this.distancesMeters[0] = 0.0;
+
+        for(int i = 1; i < this.latitudesDegrees.length; i++) {
+            double latitude1 = Math.toRadians(this.latitudesDegrees[i - 1]);
+            double latitude2 = Math.toRadians(this.latitudesDegrees[i]);
+            double sinHalfLatitude = Math.sin((latitude2 - latitude1) / 2.0);
+            double sinHalfLongitude = Math.sin(Math.toRadians(this.longitudesDegrees[i] - this.longitudesDegrees[i - 1]) / 2.0);
+            double haversine = sinHalfLatitude * sinHalfLatitude + Math.cos(latitude1) * Math.cos(latitude2) * sinHalfLongitude * sinHalfLongitude;
+            totalMeters += 2.0 * Haversine.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(haversine));
+            this.distancesMeters[i] = totalMeters;
+        }
+
+        return this.distancesMeters;
+    }
+}
@@ -0,0 +1,87 @@
+package us.maukamakai.libtcx.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Writes schema-valid synthetic running activities shaped like a Garmin Connect export, one Trackpoint per second.
+ */
+public final class TcxGenerator {
+    private static final Instant START = Instant.parse("2016-11-20T18:02:11Z");
+
+    private TcxGenerator() {
+    }
+
+    public static Path generate(final int points) throws IOException {
+        return generate(points, 1);
+    }
+
+    public static Path generate(final int points, final int laps) throws IOException {
+        Path path = Files.createTempFile(String.format(Locale.ROOT, "libtcx-%d-", points), ".tcx");
+        path.toFile().deleteOnExit();
+
+        try(Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(writer, points, laps);
+        }
+
+        return path;
+    }
+
+    private static void write(final Writer out, final int points, final int laps) throws IOException {
+        int pointsPerLap = Math.max(points / Math.max(laps, 1), 1);
+        double distanceMeters = 0.0;
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<TrainingCenterDatabase xmlns=\"http://www.garmin.com/xmlschemas/TrainingCenterDatabase/v2\" ");
+        out.write("xmlns:ns3=\"http://www.garmin.com/xmlschemas/ActivityExtension/v2\" ");
+        out.write("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n");
+        out.write(" <Activities>\n  <Activity Sport=\"Running\">\n");
+        out.write(String.format(Locale.ROOT, "   <Id>%s</Id>\n", START));
+
+        for(int i = 0; i < points; i++) {
+            if(i % pointsPerLap == 0) {
+                if(i > 0) {
+                    out.write("    </Track>\n   </Lap>\n");
+                }
+
+                int lapPoints = Math.min(pointsPerLap, points - i);
+                out.write(String.format(Locale.ROOT, "   <Lap StartTime=\"%s\">\n", START.plusSeconds(i)));
+                out.write(String.format(Locale.ROOT, "    <TotalTimeSeconds>%d.0</TotalTimeSeconds>\n", lapPoints));
+                out.write(String.format(Locale.ROOT, "    <DistanceMeters>%.1f</DistanceMeters>\n", lapPoints * 3.0));
+                out.write("    <Calories>50</Calories>\n");
+                out.write("    <Intensity>Active</Intensity>\n");
+                out.write("    <TriggerMethod>Manual</TriggerMethod>\n");
+                out.write("    <Track>\n");
+            }
+
+            distanceMeters += 3.0 + Math.sin(i / 7.0);
+
+            out.write("     <Trackpoint>\n");
+            out.write(String.format(Locale.ROOT, "      <Time>%s</Time>\n", START.plusSeconds(i)));
+            out.write("      <Position>\n");
+            out.write(String.format(Locale.ROOT, "       <LatitudeDegrees>%.10f</LatitudeDegrees>\n", 21.3 + distanceMeters / 111_000.0));
+            out.write(String.format(Locale.ROOT, "       <LongitudeDegrees>%.10f</LongitudeDegrees>\n", -157.8 + Math.sin(i / 50.0) * 0.001));
+            out.write("      </Position>\n");
+            out.write(String.format(Locale.ROOT, "      <AltitudeMeters>%.1f</AltitudeMeters>\n", 10.0 + 5.0 * Math.sin(i / 30.0)));
+            out.write(String.format(Locale.ROOT, "      <DistanceMeters>%.2f</DistanceMeters>\n", distanceMeters));
+            out.write(String.format(Locale.ROOT, "      <HeartRateBpm>\n       <Value>%d</Value>\n      </HeartRateBpm>\n", 120 + (int) (40 * Math.sin(i / 100.0))));
+            out.write("      <Extensions>\n       <ns3:TPX>\n");
+            out.write(String.format(Locale.ROOT, "        <ns3:Speed>%.3f</ns3:Speed>\n", 3.0 + Math.sin(i / 7.0)));
+            out.write(String.format(Locale.ROOT, "        <ns3:RunCadence>%d</ns3:RunCadence>\n", 85));
+            out.write(String.format(Locale.ROOT, "        <ns3:Watts>%d</ns3:Watts>\n", 200 + (int) (50 * Math.sin(i / 13.0))));
+            out.write("       </ns3:TPX>\n      </Extensions>\n");
+            out.write("     </Trackpoint>\n");
+        }
+
+        if(points > 0) {
+            out.write("    </Track>\n   </Lap>\n");
+        }
+
+        out.write("  </Activity>\n </Activities>\n</TrainingCenterDatabase>\n");
+    }
+}
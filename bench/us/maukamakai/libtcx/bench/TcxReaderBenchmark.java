@@ -0,0 +1,62 @@
+package us.maukamakai.libtcx.bench;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import us.maukamakai.libtcx.reader.TcxReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TcxReaderBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    @Param({"NONE", "STRUCTURAL", "FULL"})
+    public TcxReader.Validation validation;
+
+    private Path path;
+    private TcxReader tcxReader;
+    private TcxReader binderReader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.path = TcxGenerator.generate(this.points);
+        this.tcxReader = new TcxReader(this.validation, TcxReader.Backend.JAXB);
+        this.binderReader = new TcxReader(this.validation, TcxReader.Backend.BINDER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    public TrainingCenterDatabaseT read() {
+        return this.tcxReader.read(this.path);
+    }
+
+    @Benchmark
+    public TrainingCenterDatabaseT bind() {
+        return this.binderReader.read(this.path);
+    }
+}
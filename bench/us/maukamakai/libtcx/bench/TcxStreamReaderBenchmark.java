@@ -0,0 +1,75 @@
+package us.maukamakai.libtcx.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import us.maukamakai.libtcx.reader.TcxStreamReader;
+import us.maukamakai.libtcx.reader.TrackpointChannel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TcxStreamReaderBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    /**
+     * ALL, or a comma separated list of TrackpointChannel names to compare projections against a full decode.
+     */
+    @Param({"ALL", "TIME,HEART_RATE", "TIME,POSITION"})
+    public String channels;
+
+    private Path path;
+    private TcxStreamReader tcxStreamReader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.path = TcxGenerator.generate(this.points);
+        this.tcxStreamReader = new TcxStreamReader(parseChannels(this.channels));
+    }
+
+    private static Set<TrackpointChannel> parseChannels(final String channels) {
+        if("ALL".equals(channels)) {
+            return EnumSet.allOf(TrackpointChannel.class);
+        }
+
+        Set<TrackpointChannel> result = EnumSet.noneOf(TrackpointChannel.class);
+
+        for(String channel : channels.split(",")) {
+            result.add(TrackpointChannel.valueOf(channel.trim()));
+        }
+
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    public void read(final Blackhole blackhole) {
+        this.tcxStreamReader.read(this.path, blackhole::consume);
+    }
+}
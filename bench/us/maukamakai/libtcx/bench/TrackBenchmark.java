@@ -0,0 +1,59 @@
+package us.maukamakai.libtcx.bench;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import us.maukamakai.libtcx.computed.Activity;
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+import us.maukamakai.libtcx.computed.Track;
+import us.maukamakai.libtcx.reader.TcxReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    private TrainingCenterDatabaseT trainingCenterDatabaseT;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path path = TcxGenerator.generate(this.points);
+        this.trainingCenterDatabaseT = new TcxReader().read(path);
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Track track() {
+        return new Track(this.trainingCenterDatabaseT);
+    }
+
+    @Benchmark
+    public ColumnarTrack columnarTrack() {
+        return new ColumnarTrack(this.trainingCenterDatabaseT);
+    }
+
+    @Benchmark
+    public Activity activity() {
+        return new Activity(this.trainingCenterDatabaseT.getActivities().getActivity().get(0));
+    }
+}
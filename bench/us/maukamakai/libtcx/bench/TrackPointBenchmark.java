@@ -0,0 +1,93 @@
+package us.maukamakai.libtcx.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import us.maukamakai.libtcx.computed.Track;
+import us.maukamakai.libtcx.computed.TrackPoint;
+import us.maukamakai.libtcx.reader.TcxReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackPointBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int points;
+
+    private List<TrackPoint> trackPoints;
+    private List<TrackPoint> copies;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path path = TcxGenerator.generate(this.points);
+        this.trackPoints = new Track(new TcxReader().read(path)).trackPoints;
+        this.copies = new ArrayList<>(this.trackPoints.size());
+        Files.deleteIfExists(path);
+
+        for(TrackPoint trackPoint : this.trackPoints) {
+            this.copies.add(new TrackPoint(trackPoint.getTimestamp(),
+                                           trackPoint.getLatitudeDegrees(),
+                                           trackPoint.getLongitudeDegrees(),
+                                           trackPoint.getAltitudeMeters(),
+                                           trackPoint.getDistanceMeters(),
+                                           (short) trackPoint.getHeartRateBpm(),
+                                           trackPoint.getSpeedKilometersPerHour()));
+        }
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        int hash = 0;
+
+        for(TrackPoint trackPoint : this.trackPoints) {
+            hash += trackPoint.hashCode();
+        }
+
+        return hash;
+    }
+
+    @Benchmark
+    public int equalsCopies() {
+        int equal = 0;
+
+        for(int i = 0; i < this.trackPoints.size(); i++) {
+            if(this.trackPoints.get(i).equals(this.copies.get(i))) {
+                equal++;
+            }
+        }
+
+        return equal;
+    }
+
+    @Benchmark
+    public int compareToNeighbours() {
+        int ordered = 0;
+
+        for(int i = 1; i < this.trackPoints.size(); i++) {
+            if(this.trackPoints.get(i - 1).compareTo(this.trackPoints.get(i)) <= 0) {
+                ordered++;
+            }
+        }
+
+        return ordered;
+    }
+}
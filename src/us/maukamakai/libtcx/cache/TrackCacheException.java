@@ -0,0 +1,11 @@
+package us.maukamakai.libtcx.cache;
+
+public class TrackCacheException extends RuntimeException {
+    public TrackCacheException(String message) {
+        super(message);
+    }
+
+    public TrackCacheException(String message, Throwable throwable) {
+        super(message, throwable);
+    }
+}
@@ -0,0 +1,132 @@
+package us.maukamakai.libtcx.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Layout shared by TrackCacheWriter and TrackCacheReader.
+ *
+ * Header: magic int, version byte, zone id (unsigned short length + UTF-8 bytes), point count int. Each point then
+ * follows as a presence byte and varints, every value but heart rate and cadence zigzag delta-encoded against the last
+ * point that had it: epoch millis, latitude and longitude in 1e-7 degrees, altitude and distance in centimeters, heart
+ * rate, cadence, power in watts and sensor speed in millimeters per second. Channels cleared in the presence byte are
+ * left out.
+ *
+ * The points are followed by an activity byte, 0 for a bare track. When it is 1 the activity's Id, Sport and a varint
+ * lap count follow, then each lap's StartTime, its TotalTimeSeconds, DistanceMeters and MaximumSpeed as doubles, its
+ * Calories and average and maximum heart rate as zigzag varints, its Intensity and TriggerMethod, its point range and a
+ * varint count of its tracks followed by each track's point range. A range is its start and end index as varints, a
+ * time a presence byte, zigzag epoch millis and zigzag offset seconds, and an enum a byte holding its ordinal + 1, 0
+ * for none.
+ *
+ * Version 3 has no activity byte. Version 2 also stops after heart rate and has no cadence, power or sensor speed
+ * bits. Version 1 has no presence byte either, and every one of its channels is present.
+ */
+final class TrackCacheFormat {
+    static final int MAGIC = 0x54435843; // "TCXC"
+    static final byte VERSION_1 = 1;
+    static final byte VERSION_2 = 2;
+    static final byte VERSION_3 = 3;
+    static final byte VERSION = 4;
+
+    static final int HAS_POSITION = 1;
+    static final int HAS_ALTITUDE = 1 << 1;
+    static final int HAS_DISTANCE = 1 << 2;
+    static final int HAS_HEART_RATE = 1 << 3;
+    static final int HAS_CADENCE = 1 << 4;
+    static final int HAS_POWER = 1 << 5;
+    static final int HAS_SENSOR_SPEED = 1 << 6;
+    static final int HAS_ALL_VERSION_1 = HAS_POSITION | HAS_ALTITUDE | HAS_DISTANCE | HAS_HEART_RATE;
+
+    static final double DEGREES_SCALE = 1e7;
+    static final double METERS_SCALE = 100.0;
+    static final double SPEED_SCALE = 1000.0;
+
+    static final int MAX_VARINT_BYTES = 10;
+    static final int MAX_POINT_BYTES = 1 + MAX_VARINT_BYTES * 9;
+    static final int MAX_DATE_TIME_BYTES = 1 + MAX_VARINT_BYTES * 2;
+
+    /**
+     * Every point has at least its time varint, plus the presence byte from version 2 and the five varints of the other
+     * version 1 channels before that.
+     */
+    static final int MIN_POINT_BYTES = 2;
+    static final int MIN_POINT_BYTES_VERSION_1 = 6;
+
+    private TrackCacheFormat() {
+    }
+
+    static void writeVarLong(final ByteBuffer buffer, long value) {
+        while((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(final ByteBuffer buffer) {
+        long value = 0;
+
+        for(int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new TrackCacheException("Error: malformed varint in track cache.");
+    }
+
+    static void writeZigZag(final ByteBuffer buffer, final long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(final ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long quantize(final double value, final double scale) {
+        return Math.round(value * scale);
+    }
+
+    static void writeDateTime(final ByteBuffer buffer, final ZonedDateTime dateTime) {
+        if(Objects.isNull(dateTime)) {
+            buffer.put((byte) 0);
+            return;
+        }
+
+        buffer.put((byte) 1);
+        writeZigZag(buffer, dateTime.toInstant().toEpochMilli());
+        writeZigZag(buffer, dateTime.getOffset().getTotalSeconds());
+    }
+
+    static ZonedDateTime readDateTime(final ByteBuffer buffer) {
+        if(buffer.get() == 0) {
+            return null;
+        }
+
+        Instant instant = Instant.ofEpochMilli(readZigZag(buffer));
+        return ZonedDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds((int) readZigZag(buffer)));
+    }
+
+    static void writeEnum(final ByteBuffer buffer, final Enum<?> value) {
+        buffer.put((byte) (Objects.isNull(value) ? 0 : value.ordinal() + 1));
+    }
+
+    static <E extends Enum<E>> E readEnum(final ByteBuffer buffer, final E[] values) {
+        int ordinal = buffer.get() & 0xFF;
+
+        if(ordinal > values.length) {
+            throw new TrackCacheException(String.format("Error: unknown %s in track cache.", values.getClass().getComponentType().getSimpleName()));
+        }
+
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+}
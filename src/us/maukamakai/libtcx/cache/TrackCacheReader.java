@@ -0,0 +1,269 @@
+package us.maukamakai.libtcx.cache;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.IntensityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TriggerMethodT;
+import us.maukamakai.libtcx.computed.Activity;
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+import us.maukamakai.libtcx.computed.Lap;
+import us.maukamakai.libtcx.computed.TrackSegment;
+import us.maukamakai.libtcx.reader.LapSummary;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.DEGREES_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_ALL_VERSION_1;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_ALTITUDE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_CADENCE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_DISTANCE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_HEART_RATE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_POSITION;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_POWER;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_SENSOR_SPEED;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.METERS_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.MIN_POINT_BYTES;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.MIN_POINT_BYTES_VERSION_1;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.SPEED_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.readDateTime;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.readEnum;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.readVarLong;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.readZigZag;
+
+/**
+ * Opens tracks and activities written by TrackCacheWriter. Files are memory-mapped and decoded straight into the
+ * columns of a ColumnarTrack, the only allocations are the column arrays themselves.
+ */
+public class TrackCacheReader {
+    public ColumnarTrack read(final Path path) {
+        return decode(map(path));
+    }
+
+    /**
+     * Reads a file written from an Activity or TrainingCenterDatabaseT back with its laps.
+     */
+    public Activity readActivity(final Path path) {
+        return decodeActivity(map(path));
+    }
+
+    private static MappedByteBuffer map(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TrackCacheException("Error: path can not be null.");
+        }
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new TrackCacheException(String.format("Error reading track cache\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Decodes from the buffer's current position, advancing it past the track and any laps, which are dropped.
+     */
+    public ColumnarTrack decode(final ByteBuffer buffer) {
+        if(Objects.isNull(buffer)) {
+            throw new TrackCacheException("Error: buffer can not be null.");
+        }
+
+        try {
+            byte version = readVersion(buffer);
+            ColumnarTrack track = decodeTrack(buffer, version);
+
+            if(version == TrackCacheFormat.VERSION) {
+                decodeActivity(buffer, track);
+            }
+
+            return track;
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new TrackCacheException(String.format("Error: corrupt track cache\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Decodes from the buffer's current position, advancing it past the activity. A bare track, or one cached before
+     * laps were, is rejected.
+     */
+    public Activity decodeActivity(final ByteBuffer buffer) {
+        if(Objects.isNull(buffer)) {
+            throw new TrackCacheException("Error: buffer can not be null.");
+        }
+
+        try {
+            byte version = readVersion(buffer);
+            ColumnarTrack track = decodeTrack(buffer, version);
+            Activity activity = version == TrackCacheFormat.VERSION ? decodeActivity(buffer, track) : null;
+
+            if(Objects.isNull(activity)) {
+                throw new TrackCacheException("Error: track cache holds a track without laps, read it with decode.");
+            }
+
+            return activity;
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new TrackCacheException(String.format("Error: corrupt track cache\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    private static byte readVersion(final ByteBuffer buffer) {
+        if(buffer.getInt() != TrackCacheFormat.MAGIC) {
+            throw new TrackCacheException("Error: not a track cache file.");
+        }
+
+        byte version = buffer.get();
+
+        if(version < TrackCacheFormat.VERSION_1 || version > TrackCacheFormat.VERSION) {
+            throw new TrackCacheException(String.format("Error: unsupported track cache version %d.", version));
+        }
+
+        return version;
+    }
+
+    private static ColumnarTrack decodeTrack(final ByteBuffer buffer, final byte version) {
+        byte[] zoneId = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(zoneId);
+        int size = buffer.getInt();
+
+        if(size < 0) {
+            throw new TrackCacheException("Error: negative point count in track cache.");
+        }
+
+        // Checked before the columns are allocated, so a corrupt count can not ask for gigabytes.
+        if(size > buffer.remaining() / (version == TrackCacheFormat.VERSION_1 ? MIN_POINT_BYTES_VERSION_1 : MIN_POINT_BYTES)) {
+            throw new TrackCacheException(String.format("Error: corrupt track cache\nMessage: %d points do not fit in the remaining %d bytes.", size, buffer.remaining()));
+        }
+
+        // The cached distances are the track's, recorded or derived, and are kept as they are.
+        ColumnarTrack.Builder builder = new ColumnarTrack.Builder(size).distanceFromPositions(false);
+        builder.zone(ZoneId.of(new String(zoneId, StandardCharsets.UTF_8)));
+        int channels = version >= TrackCacheFormat.VERSION_3 ? 0xFF : HAS_ALL_VERSION_1;
+
+        long epochMillis = 0;
+        long latitude = 0;
+        long longitude = 0;
+        long altitude = 0;
+        long distance = 0;
+        long power = 0;
+        long sensorSpeed = 0;
+
+        for(int i = 0; i < size; i++) {
+            int presence = (version == TrackCacheFormat.VERSION_1 ? HAS_ALL_VERSION_1 : buffer.get()) & channels;
+            boolean hasPosition = (presence & HAS_POSITION) != 0;
+            boolean hasAltitude = (presence & HAS_ALTITUDE) != 0;
+            boolean hasDistance = (presence & HAS_DISTANCE) != 0;
+
+            epochMillis += readZigZag(buffer);
+
+            if(hasPosition) {
+                latitude += readZigZag(buffer);
+                longitude += readZigZag(buffer);
+            }
+
+            if(hasAltitude) {
+                altitude += readZigZag(buffer);
+            }
+
+            if(hasDistance) {
+                distance += readZigZag(buffer);
+            }
+
+            short heartRateBpm = (presence & HAS_HEART_RATE) != 0 ? (short) readVarLong(buffer) : ColumnarTrack.NO_HEART_RATE;
+            short cadenceRpm = (presence & HAS_CADENCE) != 0 ? (short) readVarLong(buffer) : ColumnarTrack.NO_CADENCE;
+            boolean hasPower = (presence & HAS_POWER) != 0;
+            boolean hasSensorSpeed = (presence & HAS_SENSOR_SPEED) != 0;
+
+            if(hasPower) {
+                power += readZigZag(buffer);
+            }
+
+            if(hasSensorSpeed) {
+                sensorSpeed += readZigZag(buffer);
+            }
+
+            builder.add(epochMillis,
+                        hasPosition ? latitude / DEGREES_SCALE : Double.NaN,
+                        hasPosition ? longitude / DEGREES_SCALE : Double.NaN,
+                        hasAltitude ? altitude / METERS_SCALE : Double.NaN,
+                        hasDistance ? distance / METERS_SCALE : Double.NaN,
+                        heartRateBpm,
+                        cadenceRpm,
+                        hasPower ? (int) power : ColumnarTrack.NO_POWER,
+                        hasSensorSpeed ? sensorSpeed / SPEED_SCALE : Double.NaN);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * The activity that follows the points, or null when the file holds a bare track.
+     */
+    private static Activity decodeActivity(final ByteBuffer buffer, final ColumnarTrack track) {
+        if(buffer.get() == 0) {
+            return null;
+        }
+
+        ZonedDateTime id = readDateTime(buffer);
+        SportT sport = readEnum(buffer, SportT.values());
+        int lapCount = readCount(buffer);
+        List<Lap> laps = new ArrayList<>(lapCount);
+
+        for(int i = 0; i < lapCount; i++) {
+            LapSummary summary = new LapSummary(readDateTime(buffer),
+                                                buffer.getDouble(),
+                                                buffer.getDouble(),
+                                                buffer.getDouble(),
+                                                (int) readZigZag(buffer),
+                                                (int) readZigZag(buffer),
+                                                (int) readZigZag(buffer),
+                                                readEnum(buffer, IntensityT.values()),
+                                                readEnum(buffer, TriggerMethodT.values()));
+            int startIndex = readIndex(buffer, track);
+            int endIndex = readIndex(buffer, track);
+            int trackCount = readCount(buffer);
+            List<TrackSegment> trackSegments = new ArrayList<>(trackCount);
+
+            for(int j = 0; j < trackCount; j++) {
+                int trackStartIndex = readIndex(buffer, track);
+                trackSegments.add(new TrackSegment(trackStartIndex, readIndex(buffer, track)));
+            }
+
+            laps.add(new Lap(summary, startIndex, endIndex, trackSegments));
+        }
+
+        return new Activity(id, sport, track, laps);
+    }
+
+    /**
+     * A varint count of laps or tracks, each of which takes at least a byte of what is left.
+     */
+    private static int readCount(final ByteBuffer buffer) {
+        long count = readVarLong(buffer);
+
+        if(count < 0 || count > buffer.remaining()) {
+            throw new TrackCacheException(String.format("Error: corrupt track cache\nMessage: %d laps or tracks do not fit in the remaining %d bytes.", count, buffer.remaining()));
+        }
+
+        return (int) count;
+    }
+
+    private static int readIndex(final ByteBuffer buffer, final ColumnarTrack track) {
+        long index = readVarLong(buffer);
+
+        if(index < 0 || index > track.size()) {
+            throw new TrackCacheException(String.format("Error: corrupt track cache\nMessage: index %d is outside the %d points.", index, track.size()));
+        }
+
+        return (int) index;
+    }
+}
@@ -0,0 +1,238 @@
+package us.maukamakai.libtcx.cache;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import us.maukamakai.libtcx.computed.Activity;
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+import us.maukamakai.libtcx.computed.Lap;
+import us.maukamakai.libtcx.computed.Track;
+import us.maukamakai.libtcx.computed.TrackSegment;
+import us.maukamakai.libtcx.reader.LapSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.DEGREES_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_ALTITUDE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_CADENCE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_DISTANCE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_HEART_RATE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_POSITION;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_POWER;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.HAS_SENSOR_SPEED;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.MAX_DATE_TIME_BYTES;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.MAX_POINT_BYTES;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.MAX_VARINT_BYTES;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.METERS_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.SPEED_SCALE;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.quantize;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.writeDateTime;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.writeEnum;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.writeVarLong;
+import static us.maukamakai.libtcx.cache.TrackCacheFormat.writeZigZag;
+
+/**
+ * Encodes computed tracks, or whole activities with their laps, into the compact binary cache format read back by
+ * TrackCacheReader.
+ *
+ * Positions are rounded to 1e-7 degrees, altitude and distance to the centimeter and sensor speed to the millimeter per
+ * second, so speeds derived from a cached track can differ from the original in the last few digits.
+ */
+public class TrackCacheWriter {
+    /**
+     * Writes the database's one activity with all its laps and tracks. A cache holds a single activity, so a database
+     * with none or several is rejected rather than cut down to one.
+     */
+    public void write(final TrainingCenterDatabaseT trainingCenterDatabaseT, final Path path) {
+        if(Objects.isNull(trainingCenterDatabaseT)) {
+            throw new TrackCacheException("Error: trainingCenterDatabaseT can not be null.");
+        }
+
+        List<Activity> activities = Activity.listOf(trainingCenterDatabaseT);
+
+        if(activities.size() != 1) {
+            throw new TrackCacheException(String.format("Error: a track cache holds one activity, the database has %d. Write each Activity on its own.", activities.size()));
+        }
+
+        write(activities.get(0), path);
+    }
+
+    public void write(final Activity activity, final Path path) {
+        write(encode(activity), path);
+    }
+
+    public void write(final Track track, final Path path) {
+        write(new ColumnarTrack(track), path);
+    }
+
+    public void write(final ColumnarTrack track, final Path path) {
+        write(encode(track), path);
+    }
+
+    private void write(final ByteBuffer buffer, final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TrackCacheException("Error: path can not be null.");
+        }
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new TrackCacheException(String.format("Error writing track cache\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Returns a buffer positioned at 0 and limited to the encoded length.
+     */
+    public ByteBuffer encode(final ColumnarTrack track) {
+        if(Objects.isNull(track)) {
+            throw new TrackCacheException("Error: track can not be null.");
+        }
+
+        return encode(track, null);
+    }
+
+    /**
+     * Like encode(ColumnarTrack), followed by the activity's Id, Sport and laps.
+     */
+    public ByteBuffer encode(final Activity activity) {
+        if(Objects.isNull(activity)) {
+            throw new TrackCacheException("Error: activity can not be null.");
+        }
+
+        return encode(activity.getTrack(), activity);
+    }
+
+    private ByteBuffer encode(final ColumnarTrack track, final Activity activity) {
+        byte[] zoneId = track.getZone().getId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + 2 + zoneId.length + 4 + track.size() * MAX_POINT_BYTES + maxActivityBytes(activity));
+
+        buffer.putInt(TrackCacheFormat.MAGIC);
+        buffer.put(TrackCacheFormat.VERSION);
+        buffer.putShort((short) zoneId.length);
+        buffer.put(zoneId);
+        buffer.putInt(track.size());
+
+        long prevEpochMillis = 0;
+        long prevLatitude = 0;
+        long prevLongitude = 0;
+        long prevAltitude = 0;
+        long prevDistance = 0;
+        long prevPower = 0;
+        long prevSensorSpeed = 0;
+
+        for(int i = 0; i < track.size(); i++) {
+            int presence = (track.hasPosition(i) ? HAS_POSITION : 0) |
+                           (track.hasAltitude(i) ? HAS_ALTITUDE : 0) |
+                           (track.hasDistance(i) ? HAS_DISTANCE : 0) |
+                           (track.hasHeartRate(i) ? HAS_HEART_RATE : 0) |
+                           (track.hasCadence(i) ? HAS_CADENCE : 0) |
+                           (track.hasPower(i) ? HAS_POWER : 0) |
+                           (track.hasSensorSpeed(i) ? HAS_SENSOR_SPEED : 0);
+            long epochMillis = track.getEpochMillis(i);
+
+            buffer.put((byte) presence);
+            writeZigZag(buffer, epochMillis - prevEpochMillis);
+            prevEpochMillis = epochMillis;
+
+            if((presence & HAS_POSITION) != 0) {
+                long latitude = quantize(track.getLatitudeDegrees(i), DEGREES_SCALE);
+                long longitude = quantize(track.getLongitudeDegrees(i), DEGREES_SCALE);
+                writeZigZag(buffer, latitude - prevLatitude);
+                writeZigZag(buffer, longitude - prevLongitude);
+                prevLatitude = latitude;
+                prevLongitude = longitude;
+            }
+
+            if((presence & HAS_ALTITUDE) != 0) {
+                long altitude = quantize(track.getAltitudeMeters(i), METERS_SCALE);
+                writeZigZag(buffer, altitude - prevAltitude);
+                prevAltitude = altitude;
+            }
+
+            if((presence & HAS_DISTANCE) != 0) {
+                long distance = quantize(track.getDistanceMeters(i), METERS_SCALE);
+                writeZigZag(buffer, distance - prevDistance);
+                prevDistance = distance;
+            }
+
+            if((presence & HAS_HEART_RATE) != 0) {
+                writeVarLong(buffer, track.getHeartRateBpm(i) & 0xFFFF);
+            }
+
+            if((presence & HAS_CADENCE) != 0) {
+                writeVarLong(buffer, track.getCadenceRpm(i) & 0xFFFF);
+            }
+
+            if((presence & HAS_POWER) != 0) {
+                long power = track.getPowerWatts(i);
+                writeZigZag(buffer, power - prevPower);
+                prevPower = power;
+            }
+
+            if((presence & HAS_SENSOR_SPEED) != 0) {
+                long sensorSpeed = quantize(track.getSensorSpeedMetersPerSecond(i), SPEED_SCALE);
+                writeZigZag(buffer, sensorSpeed - prevSensorSpeed);
+                prevSensorSpeed = sensorSpeed;
+            }
+        }
+
+        if(Objects.isNull(activity)) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1);
+            writeActivity(buffer, activity);
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeActivity(final ByteBuffer buffer, final Activity activity) {
+        writeDateTime(buffer, activity.getId());
+        writeEnum(buffer, activity.getSport());
+        writeVarLong(buffer, activity.getLaps().size());
+
+        for(Lap lap : activity.getLaps()) {
+            LapSummary summary = lap.getSummary();
+            writeDateTime(buffer, summary.getStartTime());
+            buffer.putDouble(summary.getTotalTimeSeconds());
+            buffer.putDouble(summary.getDistanceMeters());
+            buffer.putDouble(summary.getMaximumSpeed());
+            writeZigZag(buffer, summary.getCalories());
+            writeZigZag(buffer, summary.getAverageHeartRateBpm());
+            writeZigZag(buffer, summary.getMaximumHeartRateBpm());
+            writeEnum(buffer, summary.getIntensity());
+            writeEnum(buffer, summary.getTriggerMethod());
+            writeVarLong(buffer, lap.getStartIndex());
+            writeVarLong(buffer, lap.getEndIndex());
+            writeVarLong(buffer, lap.getTrackSegments().size());
+
+            for(TrackSegment trackSegment : lap.getTrackSegments()) {
+                writeVarLong(buffer, trackSegment.getStartIndex());
+                writeVarLong(buffer, trackSegment.getEndIndex());
+            }
+        }
+    }
+
+    private static int maxActivityBytes(final Activity activity) {
+        if(Objects.isNull(activity)) {
+            return 1;
+        }
+
+        int bytes = 1 + MAX_DATE_TIME_BYTES + 1 + MAX_VARINT_BYTES;
+
+        for(Lap lap : activity.getLaps()) {
+            bytes += MAX_DATE_TIME_BYTES + 3 * 8 + 3 * MAX_VARINT_BYTES + 2 + 3 * MAX_VARINT_BYTES + lap.getTrackSegments().size() * 2 * MAX_VARINT_BYTES;
+        }
+
+        return bytes;
+    }
+}
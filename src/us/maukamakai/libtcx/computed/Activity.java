@@ -0,0 +1,117 @@
+package us.maukamakai.libtcx.computed;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityLapT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityListT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.MultiSportSessionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.NextSportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import us.maukamakai.libtcx.reader.LapSummary;
+import us.maukamakai.libtcx.reader.TcxDateTime;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Every lap and track of an ActivityT, computed in a single pass. All points of the activity live in one
+ * ColumnarTrack in document order, and laps and track segments are index ranges into it.
+ */
+public class Activity {
+    private final ZonedDateTime id;
+    private final SportT sport;
+    private final ColumnarTrack track;
+    private final List<Lap> laps;
+
+    public Activity(final ActivityT activityT) {
+        ColumnarTrack.Builder builder = new ColumnarTrack.Builder();
+        List<Lap> laps = new ArrayList<>(activityT.getLap().size());
+
+        for(ActivityLapT activityLapT : activityT.getLap()) {
+            int lapStartIndex = builder.size();
+            List<TrackSegment> trackSegments = new ArrayList<>(activityLapT.getTrack().size());
+
+            for(TrackT trackT : activityLapT.getTrack()) {
+                int trackStartIndex = builder.size();
+
+                for(TrackpointT trackpointT : trackT.getTrackpoint()) {
+                    builder.add(trackpointT);
+                }
+
+                trackSegments.add(new TrackSegment(trackStartIndex, builder.size()));
+            }
+
+            laps.add(new Lap(new LapSummary(activityLapT), lapStartIndex, builder.size(), trackSegments));
+        }
+
+        this.id = Objects.isNull(activityT.getId()) ? null : TcxDateTime.toZonedDateTime(activityT.getId());
+        this.sport = activityT.getSport();
+        this.track = builder.build();
+        this.laps = Collections.unmodifiableList(laps);
+    }
+
+    /**
+     * An activity whose points and laps are already computed, such as one read back by TrackCacheReader. Laps and
+     * their track segments index into track.
+     */
+    public Activity(final ZonedDateTime id, final SportT sport, final ColumnarTrack track, final List<Lap> laps) {
+        this.id = id;
+        this.sport = sport;
+        this.track = Objects.requireNonNull(track);
+        this.laps = Collections.unmodifiableList(new ArrayList<>(laps));
+    }
+
+    /**
+     * Computes every activity in the database, including the legs of multi-sport sessions, in document order.
+     */
+    public static List<Activity> listOf(final TrainingCenterDatabaseT trainingCenterDatabaseT) {
+        List<Activity> activities = new ArrayList<>();
+        ActivityListT activityListT = trainingCenterDatabaseT.getActivities();
+
+        if(Objects.isNull(activityListT)) {
+            return activities;
+        }
+
+        for(ActivityT activityT : activityListT.getActivity()) {
+            activities.add(new Activity(activityT));
+        }
+
+        for(MultiSportSessionT multiSportSessionT : activityListT.getMultiSportSession()) {
+            if(Objects.nonNull(multiSportSessionT.getFirstSport()) && Objects.nonNull(multiSportSessionT.getFirstSport().getActivity())) {
+                activities.add(new Activity(multiSportSessionT.getFirstSport().getActivity()));
+            }
+
+            for(NextSportT nextSportT : multiSportSessionT.getNextSport()) {
+                if(Objects.nonNull(nextSportT.getActivity())) {
+                    activities.add(new Activity(nextSportT.getActivity()));
+                }
+            }
+        }
+
+        return activities;
+    }
+
+    public final ZonedDateTime getId() {
+        return this.id;
+    }
+
+    public final SportT getSport() {
+        return this.sport;
+    }
+
+    /**
+     * All points of the activity, laps and track segments index into this.
+     */
+    public final ColumnarTrack getTrack() {
+        return this.track;
+    }
+
+    public final List<Lap> getLaps() {
+        return this.laps;
+    }
+}
@@ -0,0 +1,92 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * The best window of a track for one target, either the fastest time over a distance or the longest distance in a
+ * duration. Window boundaries are interpolated linearly between points, so they usually fall between two of them.
+ */
+public class BestEffort {
+    private final double target;
+    private final long trackStartEpochMillis;
+    private final double startSeconds;
+    private final double endSeconds;
+    private final double startDistanceMeters;
+    private final double endDistanceMeters;
+    private final int startIndex;
+    private final int endIndex;
+
+    BestEffort(final double target,
+               final long trackStartEpochMillis,
+               final double startSeconds,
+               final double endSeconds,
+               final double startDistanceMeters,
+               final double endDistanceMeters,
+               final int startIndex,
+               final int endIndex) {
+        this.target = target;
+        this.trackStartEpochMillis = trackStartEpochMillis;
+        this.startSeconds = startSeconds;
+        this.endSeconds = endSeconds;
+        this.startDistanceMeters = startDistanceMeters;
+        this.endDistanceMeters = endDistanceMeters;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    /**
+     * The requested distance in meters or duration in seconds.
+     */
+    public final double getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Seconds from the track's first point to the start of the window.
+     */
+    public final double getStartSeconds() {
+        return this.startSeconds;
+    }
+
+    public final double getEndSeconds() {
+        return this.endSeconds;
+    }
+
+    public final long getStartEpochMillis() {
+        return this.trackStartEpochMillis + Math.round(this.startSeconds * 1000.0);
+    }
+
+    public final long getEndEpochMillis() {
+        return this.trackStartEpochMillis + Math.round(this.endSeconds * 1000.0);
+    }
+
+    public final double getDurationSeconds() {
+        return this.endSeconds - this.startSeconds;
+    }
+
+    public final double getDistanceMeters() {
+        return this.endDistanceMeters - this.startDistanceMeters;
+    }
+
+    public final double getSpeedKilometersPerHour() {
+        return getDistanceMeters() / getDurationSeconds() * 3.6;
+    }
+
+    /**
+     * The last point at or before the start of the window.
+     */
+    public final int getStartIndex() {
+        return this.startIndex;
+    }
+
+    /**
+     * The first point at or after the end of the window.
+     */
+    public final int getEndIndex() {
+        return this.endIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f: %.1f m in %.1f s from %.1f s, points [%d, %d]",
+                             this.target, getDistanceMeters(), getDurationSeconds(), this.startSeconds, this.startIndex, this.endIndex);
+    }
+}
@@ -0,0 +1,171 @@
+package us.maukamakai.libtcx.computed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the best efforts of a track for many targets in one pass over its points.
+ *
+ * Both kinds of effort fix the span of one column and optimise the span of the other: the fastest distance fixes
+ * distance and minimises time, the best duration fixes time and maximises distance. With both columns interpolated
+ * linearly between points, the optimal window always has its start or its end on a point, so the sweep tries every
+ * point as an end, interpolating the start, and as a start, interpolating the end. Each target keeps one pointer per
+ * direction that only moves forward, which makes the whole search O(n) per target instead of O(n^2).
+ *
+ * Only points with a distance take part. Distances and times that step backwards are held at their previous value.
+ */
+final class BestEfforts {
+    private final long trackStartEpochMillis;
+    private final double[] seconds;
+    private final double[] distancesMeters;
+    private final int[] indices;
+    private final int size;
+
+    BestEfforts(final ColumnarTrack track) {
+        this.trackStartEpochMillis = track.isEmpty() ? 0 : track.getEpochMillis(0);
+        this.seconds = new double[track.size()];
+        this.distancesMeters = new double[track.size()];
+        this.indices = new int[track.size()];
+
+        int size = 0;
+
+        for(int i = 0; i < track.size(); i++) {
+            if(!track.hasDistance(i) || Double.isNaN(track.getDistanceMeters(i))) {
+                continue;
+            }
+
+            double seconds = (track.getEpochMillis(i) - this.trackStartEpochMillis) / 1000.0;
+            double distanceMeters = track.getDistanceMeters(i);
+            this.seconds[size] = size == 0 ? seconds : Math.max(seconds, this.seconds[size - 1]);
+            this.distancesMeters[size] = size == 0 ? distanceMeters : Math.max(distanceMeters, this.distancesMeters[size - 1]);
+            this.indices[size] = i;
+            size++;
+        }
+
+        this.size = size;
+    }
+
+    List<BestEffort> ofDistances(final double[] distancesMeters) {
+        return sweep(distancesMeters, this.distancesMeters, this.seconds, true);
+    }
+
+    List<BestEffort> ofDurations(final double[] durationsSeconds) {
+        return sweep(durationsSeconds, this.seconds, this.distancesMeters, false);
+    }
+
+    /**
+     * For each width, finds the window spanning exactly that much of x with the smallest, or largest, span of y.
+     */
+    private List<BestEffort> sweep(final double[] widths, final double[] x, final double[] y, final boolean isMinimizing) {
+        for(double width : widths) {
+            if(!(width > 0.0) || Double.isInfinite(width)) {
+                throw new IllegalArgumentException(String.format("Error: best effort target %s must be positive and finite.", width));
+            }
+        }
+
+        int targets = widths.length;
+        int[] starts = new int[targets];
+        int[] ends = new int[targets];
+        double[] bestSpans = new double[targets];
+        double[] bestStartX = new double[targets];
+        double[] bestStartY = new double[targets];
+        double[] bestEndY = new double[targets];
+        int[] bestStartIndices = new int[targets];
+        int[] bestEndIndices = new int[targets];
+
+        Arrays.fill(ends, 1);
+        Arrays.fill(bestSpans, Double.NaN);
+
+        for(int p = 0; p < this.size; p++) {
+            for(int k = 0; k < targets; k++) {
+                double width = widths[k];
+
+                // The window ends on point p and starts between points a and a + 1.
+                double startX = x[p] - width;
+                int a = starts[k];
+
+                while(a + 1 < p && x[a + 1] <= startX) {
+                    a++;
+                }
+
+                starts[k] = a;
+
+                if(a < p && x[a] <= startX) {
+                    double startY = interpolate(x, y, a, startX);
+                    double span = y[p] - startY;
+
+                    if(isBetter(span, bestSpans[k], isMinimizing)) {
+                        bestSpans[k] = span;
+                        bestStartX[k] = startX;
+                        bestStartY[k] = startY;
+                        bestEndY[k] = y[p];
+                        bestStartIndices[k] = a;
+                        bestEndIndices[k] = p;
+                    }
+                }
+
+                // The window starts on point p and ends between points b - 1 and b.
+                double endX = x[p] + width;
+                int b = Math.max(ends[k], p + 1);
+
+                while(b < this.size && x[b] < endX) {
+                    b++;
+                }
+
+                ends[k] = b;
+
+                if(b < this.size) {
+                    double endY = interpolate(x, y, b - 1, endX);
+                    double span = endY - y[p];
+
+                    if(isBetter(span, bestSpans[k], isMinimizing)) {
+                        bestSpans[k] = span;
+                        bestStartX[k] = x[p];
+                        bestStartY[k] = y[p];
+                        bestEndY[k] = endY;
+                        bestStartIndices[k] = p;
+                        bestEndIndices[k] = b;
+                    }
+                }
+            }
+        }
+
+        List<BestEffort> bestEfforts = new ArrayList<>(targets);
+
+        for(int k = 0; k < targets; k++) {
+            if(Double.isNaN(bestSpans[k])) {
+                bestEfforts.add(null);
+            } else if(isMinimizing) {
+                bestEfforts.add(new BestEffort(widths[k], this.trackStartEpochMillis,
+                                               bestStartY[k], bestEndY[k],
+                                               bestStartX[k], bestStartX[k] + widths[k],
+                                               this.indices[bestStartIndices[k]], this.indices[bestEndIndices[k]]));
+            } else {
+                bestEfforts.add(new BestEffort(widths[k], this.trackStartEpochMillis,
+                                               bestStartX[k], bestStartX[k] + widths[k],
+                                               bestStartY[k], bestEndY[k],
+                                               this.indices[bestStartIndices[k]], this.indices[bestEndIndices[k]]));
+            }
+        }
+
+        return bestEfforts;
+    }
+
+    /**
+     * y at value between x[i] and x[i + 1], where x[i] <= value < x[i + 1] or value == x[i + 1].
+     */
+    private static double interpolate(final double[] x, final double[] y, final int i, final double value) {
+        double deltaX = x[i + 1] - x[i];
+
+        if(deltaX <= 0.0) {
+            return y[i + 1];
+        }
+
+        return y[i] + (y[i + 1] - y[i]) * (value - x[i]) / deltaX;
+    }
+
+    private static boolean isBetter(final double span, final double bestSpan, final boolean isMinimizing) {
+        return Double.isNaN(bestSpan) || (isMinimizing ? span < bestSpan : span > bestSpan);
+    }
+}
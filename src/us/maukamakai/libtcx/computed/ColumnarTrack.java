@@ -0,0 +1,536 @@
+package us.maukamakai.libtcx.computed;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import us.maukamakai.libtcx.reader.TcxDateTime;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays version of {@link Track}. Every channel lives in its own primitive array indexed by point, which
+ * takes a fraction of the memory of a list of TrackPoints and keeps whole-track scans sequential.
+ *
+ * Channels a Trackpoint did not record hold NaN, or the channel's NO_ constant for integer channels, and are cleared in
+ * that channel's presence bitset. A channel recorded by every point keeps no bitset at all.
+ *
+ * Cadence, power and sensor speed come from the Trackpoint Cadence and the ActivityExtension v2 TPX RunCadence, Watts
+ * and Speed elements.
+ */
+public class ColumnarTrack {
+    public static final short NO_HEART_RATE = 0;
+    public static final short NO_CADENCE = -1;
+    public static final int NO_POWER = -1;
+
+    private final long[] timestamps;
+    private final double[] latitudesDegrees;
+    private final double[] longitudesDegrees;
+    private final double[] altitudesMeters;
+    private final double[] distancesMeters;
+    private final double[] speedsKilometersPerHour;
+    private final short[] heartRatesBpm;
+    private final short[] cadencesRpm;
+    private final int[] powersWatts;
+    private final double[] sensorSpeedsMetersPerSecond;
+    private final BitSet positionPresence;
+    private final BitSet altitudePresence;
+    private final BitSet distancePresence;
+    private final BitSet heartRatePresence;
+    private final BitSet cadencePresence;
+    private final BitSet powerPresence;
+    private final BitSet sensorSpeedPresence;
+    private final ZoneId zone;
+    private final int size;
+
+    public ColumnarTrack(final TrainingCenterDatabaseT trainingCenterDatabaseT) {
+        this(trainingCenterDatabaseT.getActivities().getActivity().get(0).getLap().get(0).getTrack().get(0));
+    }
+
+    public ColumnarTrack(final TrackT trackT) {
+        this(builderOf(trackT));
+    }
+
+    public ColumnarTrack(final Track track) {
+        this(builderOf(track));
+    }
+
+    private ColumnarTrack(final Builder builder) {
+        this.size = builder.size;
+        this.timestamps = trim(builder.timestamps, builder.size);
+        this.latitudesDegrees = trim(builder.latitudesDegrees, builder.size);
+        this.longitudesDegrees = trim(builder.longitudesDegrees, builder.size);
+        this.altitudesMeters = trim(builder.altitudesMeters, builder.size);
+        this.distancesMeters = trim(builder.distancesMeters, builder.size);
+        this.speedsKilometersPerHour = trim(builder.speedsKilometersPerHour, builder.size);
+        this.heartRatesBpm = trim(builder.heartRatesBpm, builder.size);
+        this.cadencesRpm = trim(builder.cadencesRpm, builder.size);
+        this.powersWatts = trim(builder.powersWatts, builder.size);
+        this.sensorSpeedsMetersPerSecond = trim(builder.sensorSpeedsMetersPerSecond, builder.size);
+        this.positionPresence = presence(builder.positionPresence, builder.size);
+        this.altitudePresence = presence(builder.altitudePresence, builder.size);
+        this.distancePresence = presence(builder.distancePresence, builder.size);
+        this.heartRatePresence = presence(builder.heartRatePresence, builder.size);
+        this.cadencePresence = presence(builder.cadencePresence, builder.size);
+        this.powerPresence = presence(builder.powerPresence, builder.size);
+        this.sensorSpeedPresence = presence(builder.sensorSpeedPresence, builder.size);
+        this.zone = builder.zone;
+    }
+
+    private static BitSet presence(final BitSet presence, final int size) {
+        return presence.nextClearBit(0) >= size ? null : (BitSet) presence.clone();
+    }
+
+    private static long[] trim(final long[] values, final int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    private static double[] trim(final double[] values, final int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    private static short[] trim(final short[] values, final int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    private static int[] trim(final int[] values, final int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    private static Builder builderOf(final TrackT trackT) {
+        Builder builder = new Builder();
+
+        if(Objects.isNull(trackT)) {
+            return builder;
+        }
+
+        for(TrackpointT trackpointT : trackT.getTrackpoint()) {
+            builder.add(trackpointT);
+        }
+
+        return builder;
+    }
+
+    private static Builder builderOf(final Track track) {
+        Builder builder = new Builder();
+
+        for(TrackPoint trackPoint : track.trackPoints) {
+            builder.zone(trackPoint.getZone());
+            builder.add(trackPoint.getEpochMillis(),
+                        trackPoint.getLatitudeDegrees(),
+                        trackPoint.getLongitudeDegrees(),
+                        trackPoint.getAltitudeMeters(),
+                        trackPoint.getDistanceMeters(),
+                        (short) trackPoint.getHeartRateBpm());
+        }
+
+        return builder;
+    }
+
+    public final int size() {
+        return this.size;
+    }
+
+    public final boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public final ZoneId getZone() {
+        return this.zone;
+    }
+
+    public final long getEpochMillis(final int index) {
+        return this.timestamps[index];
+    }
+
+    public final ZonedDateTime getTimestamp(final int index) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(this.timestamps[index]), this.zone);
+    }
+
+    public final double getLatitudeDegrees(final int index) {
+        return this.latitudesDegrees[index];
+    }
+
+    public final double getLongitudeDegrees(final int index) {
+        return this.longitudesDegrees[index];
+    }
+
+    public final double getAltitudeMeters(final int index) {
+        return this.altitudesMeters[index];
+    }
+
+    public final double getDistanceMeters(final int index) {
+        return this.distancesMeters[index];
+    }
+
+    public final int getHeartRateBpm(final int index) {
+        return this.heartRatesBpm[index];
+    }
+
+    public final double getSpeedKilometersPerHour(final int index) {
+        return this.speedsKilometersPerHour[index];
+    }
+
+    /**
+     * Bike cadence, or run cadence from the TPX extension, NO_CADENCE when neither was recorded.
+     */
+    public final int getCadenceRpm(final int index) {
+        return this.cadencesRpm[index];
+    }
+
+    public final int getPowerWatts(final int index) {
+        return this.powersWatts[index];
+    }
+
+    /**
+     * The speed the device reported in the TPX extension, as opposed to the one derived from distance.
+     */
+    public final double getSensorSpeedMetersPerSecond(final int index) {
+        return this.sensorSpeedsMetersPerSecond[index];
+    }
+
+    /**
+     * Cumulative great-circle distance along the positions, independent of the recorded distances, see
+     * Haversine.cumulativeDistancesMeters.
+     */
+    public final double[] getDistancesFromPositionsMeters() {
+        double[] distancesMeters = new double[this.size];
+        Haversine.cumulativeDistancesMeters(this.latitudesDegrees, this.longitudesDegrees, this.size, distancesMeters);
+        return distancesMeters;
+    }
+
+    /**
+     * The fastest window covering each distance, in one pass for all of them. The list follows the order of the
+     * targets and holds null where the track is shorter than the target.
+     */
+    public final List<BestEffort> getBestDistanceEfforts(final double... distancesMeters) {
+        return new BestEfforts(this).ofDistances(distancesMeters);
+    }
+
+    /**
+     * The window of each duration covering the longest distance, in one pass for all of them. The list follows the
+     * order of the targets and holds null where the track is shorter than the target.
+     */
+    public final List<BestEffort> getBestDurationEfforts(final double... durationsSeconds) {
+        return new BestEfforts(this).ofDurations(durationsSeconds);
+    }
+
+    /**
+     * Best average power over log-spaced durations from 1 s to the length of the track, see MeanMaximalCurve.
+     */
+    public final MeanMaximalCurve getPowerCurve() {
+        return getPowerCurve(MeanMaximalCurve.logSpacedDurations(getDurationSeconds()));
+    }
+
+    public final MeanMaximalCurve getPowerCurve(final int... durationsSeconds) {
+        return MeanMaximalCurve.of(this, this::hasPower, this::getPowerWatts, true, durationsSeconds);
+    }
+
+    /**
+     * Best average heart rate over log-spaced durations from 1 s to the length of the track, see MeanMaximalCurve.
+     */
+    public final MeanMaximalCurve getHeartRateCurve() {
+        return getHeartRateCurve(MeanMaximalCurve.logSpacedDurations(getDurationSeconds()));
+    }
+
+    public final MeanMaximalCurve getHeartRateCurve(final int... durationsSeconds) {
+        return MeanMaximalCurve.of(this, this::hasHeartRate, this::getHeartRateBpm, false, durationsSeconds);
+    }
+
+    /**
+     * Whole seconds from the first to the last point, rounded up so the curves reach the end of the track.
+     */
+    private int getDurationSeconds() {
+        return this.size == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.floorDiv(this.timestamps[this.size - 1] - this.timestamps[0], 1000L) + 1);
+    }
+
+    public final boolean hasPosition(final int index) {
+        return Objects.isNull(this.positionPresence) || this.positionPresence.get(index);
+    }
+
+    public final boolean hasAltitude(final int index) {
+        return Objects.isNull(this.altitudePresence) || this.altitudePresence.get(index);
+    }
+
+    public final boolean hasDistance(final int index) {
+        return Objects.isNull(this.distancePresence) || this.distancePresence.get(index);
+    }
+
+    public final boolean hasHeartRate(final int index) {
+        return Objects.isNull(this.heartRatePresence) || this.heartRatePresence.get(index);
+    }
+
+    public final boolean hasCadence(final int index) {
+        return Objects.isNull(this.cadencePresence) || this.cadencePresence.get(index);
+    }
+
+    public final boolean hasPower(final int index) {
+        return Objects.isNull(this.powerPresence) || this.powerPresence.get(index);
+    }
+
+    public final boolean hasSensorSpeed(final int index) {
+        return Objects.isNull(this.sensorSpeedPresence) || this.sensorSpeedPresence.get(index);
+    }
+
+    /**
+     * Materializes a single point. Nothing is cached, so hot loops should use the indexed accessors instead.
+     */
+    public final TrackPoint getTrackPoint(final int index) {
+        return new TrackPoint(this.timestamps[index],
+                              this.zone,
+                              this.latitudesDegrees[index],
+                              this.longitudesDegrees[index],
+                              this.altitudesMeters[index],
+                              this.distancesMeters[index],
+                              this.heartRatesBpm[index],
+                              this.speedsKilometersPerHour[index]);
+    }
+
+    /**
+     * A read-only List view over the columns that builds each TrackPoint as it is accessed.
+     */
+    public final List<TrackPoint> asTrackPoints() {
+        return new TrackPointView();
+    }
+
+    private class TrackPointView extends AbstractList<TrackPoint> implements RandomAccess {
+        @Override
+        public TrackPoint get(final int index) {
+            if(index < 0 || index >= ColumnarTrack.this.size) {
+                throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, ColumnarTrack.this.size));
+            }
+
+            return getTrackPoint(index);
+        }
+
+        @Override
+        public int size() {
+            return ColumnarTrack.this.size;
+        }
+    }
+
+    /**
+     * Appends points one at a time and derives speed from consecutive distance and time deltas, the same way
+     * {@link Track} does. Missing channels are recorded rather than rejected, so a sparse file is built in one pass
+     * without exceptions. Speed is measured against the last earlier point that had a distance and is NaN when there
+     * is none, so points sharing a timestamp no longer produce infinite speeds.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private long[] timestamps;
+        private double[] latitudesDegrees;
+        private double[] longitudesDegrees;
+        private double[] altitudesMeters;
+        private double[] distancesMeters;
+        private double[] speedsKilometersPerHour;
+        private short[] heartRatesBpm;
+        private short[] cadencesRpm;
+        private int[] powersWatts;
+        private double[] sensorSpeedsMetersPerSecond;
+        private final BitSet positionPresence;
+        private final BitSet altitudePresence;
+        private final BitSet distancePresence;
+        private final BitSet heartRatePresence;
+        private final BitSet cadencePresence;
+        private final BitSet powerPresence;
+        private final BitSet sensorSpeedPresence;
+        private final TrackSample sample;
+        private final SpeedSource speedSource;
+        private final DistanceSource distanceSource;
+        private ZoneId zone;
+        private int size;
+        private boolean isShared;
+
+        public Builder() {
+            this(INITIAL_CAPACITY);
+        }
+
+        public Builder(final int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 1);
+            this.timestamps = new long[capacity];
+            this.latitudesDegrees = new double[capacity];
+            this.longitudesDegrees = new double[capacity];
+            this.altitudesMeters = new double[capacity];
+            this.distancesMeters = new double[capacity];
+            this.speedsKilometersPerHour = new double[capacity];
+            this.heartRatesBpm = new short[capacity];
+            this.cadencesRpm = new short[capacity];
+            this.powersWatts = new int[capacity];
+            this.sensorSpeedsMetersPerSecond = new double[capacity];
+            this.positionPresence = new BitSet(capacity);
+            this.altitudePresence = new BitSet(capacity);
+            this.distancePresence = new BitSet(capacity);
+            this.heartRatePresence = new BitSet(capacity);
+            this.cadencePresence = new BitSet(capacity);
+            this.powerPresence = new BitSet(capacity);
+            this.sensorSpeedPresence = new BitSet(capacity);
+            this.sample = new TrackSample();
+            this.speedSource = new SpeedSource();
+            this.distanceSource = new DistanceSource();
+            this.zone = ZoneOffset.UTC;
+            this.size = 0;
+            this.isShared = false;
+        }
+
+        public Builder zone(final ZoneId zone) {
+            this.zone = Objects.requireNonNull(zone);
+            return this;
+        }
+
+        /**
+         * Filters every speed derived from here on, e.g. SpeedFilter.maxAcceleration(4.0).then(SpeedFilter.median(5)).
+         * The filter is reset and must not be shared with another builder.
+         */
+        public Builder speedFilter(final SpeedFilter speedFilter) {
+            this.speedSource.speedFilter(speedFilter);
+            return this;
+        }
+
+        /**
+         * Replaces recorded distances with the great-circle distance along the positions from the first point that
+         * has one, for devices that do not record DistanceMeters. Points without a position then have no distance.
+         *
+         * Unless set here, the first point with a distance or a position decides: a recorded distance keeps recorded
+         * distances for the whole track, a position without one derives them from positions.
+         */
+        public Builder distanceFromPositions(final boolean isDistanceFromPositions) {
+            this.distanceSource.fromPositions(isDistanceFromPositions);
+            return this;
+        }
+
+        /**
+         * A Trackpoint without a Time can not be placed on the track and is skipped.
+         */
+        public Builder add(final TrackpointT trackpointT) {
+            TrackSample sample = this.sample;
+
+            if(!sample.decode(trackpointT)) {
+                return this;
+            }
+
+            if(this.size == 0) {
+                this.zone = TcxDateTime.toZoneOffset(trackpointT.getTime());
+            }
+
+            return add(sample.epochMillis,
+                       sample.latitudeDegrees,
+                       sample.longitudeDegrees,
+                       sample.altitudeMeters,
+                       sample.distanceMeters,
+                       sample.heartRateBpm,
+                       sample.cadenceRpm,
+                       sample.powerWatts,
+                       sample.sensorSpeedMetersPerSecond);
+        }
+
+        /**
+         * NaN marks a missing double channel and NO_HEART_RATE a missing heart rate.
+         */
+        public Builder add(final long epochMillis,
+                           final double latitudeDegrees,
+                           final double longitudeDegrees,
+                           final double altitudeMeters,
+                           final double distanceMeters,
+                           final short heartRateBpm) {
+            return add(epochMillis, latitudeDegrees, longitudeDegrees, altitudeMeters, distanceMeters, heartRateBpm, NO_CADENCE, NO_POWER, Double.NaN);
+        }
+
+        /**
+         * Like the six channel add, with NO_CADENCE and NO_POWER marking missing cadence and power.
+         */
+        public Builder add(final long epochMillis,
+                           final double latitudeDegrees,
+                           final double longitudeDegrees,
+                           final double altitudeMeters,
+                           final double distanceMeters,
+                           final short heartRateBpm,
+                           final short cadenceRpm,
+                           final int powerWatts,
+                           final double sensorSpeedMetersPerSecond) {
+            return append(epochMillis,
+                          latitudeDegrees,
+                          longitudeDegrees,
+                          altitudeMeters,
+                          this.distanceSource.distanceMeters(latitudeDegrees, longitudeDegrees, distanceMeters),
+                          heartRateBpm,
+                          cadenceRpm,
+                          powerWatts,
+                          sensorSpeedMetersPerSecond);
+        }
+
+        private Builder append(final long epochMillis,
+                               final double latitudeDegrees,
+                               final double longitudeDegrees,
+                               final double altitudeMeters,
+                               final double distanceMeters,
+                               final short heartRateBpm,
+                               final short cadenceRpm,
+                               final int powerWatts,
+                               final double sensorSpeedMetersPerSecond) {
+            ensureCapacity(this.size + 1);
+
+            int index = this.size;
+            this.timestamps[index] = epochMillis;
+            this.latitudesDegrees[index] = latitudeDegrees;
+            this.longitudesDegrees[index] = longitudeDegrees;
+            this.altitudesMeters[index] = altitudeMeters;
+            this.distancesMeters[index] = distanceMeters;
+            this.heartRatesBpm[index] = heartRateBpm;
+            this.cadencesRpm[index] = cadenceRpm;
+            this.powersWatts[index] = powerWatts;
+            this.sensorSpeedsMetersPerSecond[index] = sensorSpeedMetersPerSecond;
+            this.positionPresence.set(index, !Double.isNaN(latitudeDegrees) && !Double.isNaN(longitudeDegrees));
+            this.altitudePresence.set(index, !Double.isNaN(altitudeMeters));
+            this.distancePresence.set(index, !Double.isNaN(distanceMeters));
+            this.heartRatePresence.set(index, heartRateBpm != NO_HEART_RATE);
+            this.cadencePresence.set(index, cadenceRpm != NO_CADENCE);
+            this.powerPresence.set(index, powerWatts != NO_POWER);
+            this.sensorSpeedPresence.set(index, !Double.isNaN(sensorSpeedMetersPerSecond));
+            this.speedsKilometersPerHour[index] = this.speedSource.speedKilometersPerHour(epochMillis, distanceMeters);
+            this.size++;
+
+            return this;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Exactly sized arrays are handed to the track without copying, the builder copies them again before it
+         * next writes. Larger ones are trimmed into copies the builder never shares.
+         */
+        public ColumnarTrack build() {
+            this.isShared = this.isShared || this.size == this.timestamps.length;
+            return new ColumnarTrack(this);
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if(capacity <= this.timestamps.length && !this.isShared) {
+                return;
+            }
+
+            int newCapacity = capacity <= this.timestamps.length ? this.timestamps.length : Math.max(capacity, this.timestamps.length * 2);
+            this.isShared = false;
+            this.timestamps = Arrays.copyOf(this.timestamps, newCapacity);
+            this.latitudesDegrees = Arrays.copyOf(this.latitudesDegrees, newCapacity);
+            this.longitudesDegrees = Arrays.copyOf(this.longitudesDegrees, newCapacity);
+            this.altitudesMeters = Arrays.copyOf(this.altitudesMeters, newCapacity);
+            this.distancesMeters = Arrays.copyOf(this.distancesMeters, newCapacity);
+            this.speedsKilometersPerHour = Arrays.copyOf(this.speedsKilometersPerHour, newCapacity);
+            this.heartRatesBpm = Arrays.copyOf(this.heartRatesBpm, newCapacity);
+            this.cadencesRpm = Arrays.copyOf(this.cadencesRpm, newCapacity);
+            this.powersWatts = Arrays.copyOf(this.powersWatts, newCapacity);
+            this.sensorSpeedsMetersPerSecond = Arrays.copyOf(this.sensorSpeedsMetersPerSecond, newCapacity);
+        }
+    }
+}
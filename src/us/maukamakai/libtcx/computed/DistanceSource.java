@@ -0,0 +1,62 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * Where a track's distances come from, shared by ColumnarTrack.Builder and TrackAccumulators so every reader gets the
+ * same distance column for the same document.
+ *
+ * Unless fixed with fromPositions, the first point with a distance or a position decides: a recorded distance keeps
+ * recorded distances for the whole track, a position without one derives them from positions with Haversine.
+ */
+final class DistanceSource {
+    private boolean isFromPositions;
+    private boolean isDecided;
+    private double lastLatitude;
+    private double lastLongitude;
+    private double lastCosLatitude;
+    private double totalMeters;
+
+    DistanceSource() {
+        this.isFromPositions = false;
+        this.isDecided = false;
+        this.lastLatitude = Double.NaN;
+        this.totalMeters = 0.0;
+    }
+
+    void fromPositions(final boolean isFromPositions) {
+        this.isFromPositions = isFromPositions;
+        this.isDecided = true;
+    }
+
+    /**
+     * The distance of the next point, the recorded one or the great-circle distance along the positions so far. NaN
+     * when the point has neither.
+     */
+    double distanceMeters(final double latitudeDegrees, final double longitudeDegrees, final double distanceMeters) {
+        boolean hasPosition = !Double.isNaN(latitudeDegrees) && !Double.isNaN(longitudeDegrees);
+
+        if(!this.isDecided && (hasPosition || !Double.isNaN(distanceMeters))) {
+            fromPositions(Double.isNaN(distanceMeters));
+        }
+
+        if(!this.isFromPositions) {
+            return distanceMeters;
+        }
+
+        if(!hasPosition) {
+            return Double.NaN;
+        }
+
+        double latitude = Math.toRadians(latitudeDegrees);
+        double longitude = Math.toRadians(longitudeDegrees);
+        double cosLatitude = Haversine.cos(latitude);
+
+        if(!Double.isNaN(this.lastLatitude)) {
+            this.totalMeters += Haversine.distanceMeters(this.lastLatitude, this.lastLongitude, this.lastCosLatitude, latitude, longitude, cosLatitude);
+        }
+
+        this.lastLatitude = latitude;
+        this.lastLongitude = longitude;
+        this.lastCosLatitude = cosLatitude;
+        return this.totalMeters;
+    }
+}
@@ -0,0 +1,136 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * Great-circle distances on a spherical Earth, for tracks whose devices record positions but no DistanceMeters.
+ *
+ * Consecutive GPS fixes are at most a few hundred meters apart, so the sines and arcsine of the haversine formula are
+ * evaluated as short polynomials for small angles, which are exact to double precision there and several times
+ * cheaper than Math.sin and Math.asin. Larger steps fall back to the library functions. The spherical model is within
+ * about 0.5% of the WGS84 ellipsoid, well below GPS noise at 1 Hz.
+ */
+public final class Haversine {
+    /**
+     * IUGG mean Earth radius.
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final double RADIANS_PER_DEGREE = Math.PI / 180.0;
+    private static final double SMALL_ANGLE = 1.0e-2;
+    private static final double COS_2 = -1.0 / 2.0;
+    private static final double COS_4 = 1.0 / 24.0;
+    private static final double COS_6 = -1.0 / 720.0;
+    private static final double COS_8 = 1.0 / 40320.0;
+    private static final double COS_10 = -1.0 / 3628800.0;
+    private static final double COS_12 = 1.0 / 479001600.0;
+    private static final double COS_14 = -1.0 / 87178291200.0;
+    private static final double COS_16 = 1.0 / 20922789888000.0;
+    private static final double COS_18 = -1.0 / 6402373705728000.0;
+    private static final double COS_20 = 1.0 / 2432902008176640000.0;
+
+    private Haversine() {
+    }
+
+    public static double distanceMeters(final double latitudeDegrees1,
+                                        final double longitudeDegrees1,
+                                        final double latitudeDegrees2,
+                                        final double longitudeDegrees2) {
+        double latitude1 = latitudeDegrees1 * RADIANS_PER_DEGREE;
+        double latitude2 = latitudeDegrees2 * RADIANS_PER_DEGREE;
+
+        return distanceMeters(latitude1, longitudeDegrees1 * RADIANS_PER_DEGREE, cos(latitude1),
+                              latitude2, longitudeDegrees2 * RADIANS_PER_DEGREE, cos(latitude2));
+    }
+
+    /**
+     * Fills distancesMeters[0, size) with the distance travelled from the first point with a position. Points without
+     * one, NaN latitude or longitude, get NaN and are bridged by the next step, as are the points before the first fix.
+     * Each latitude's cosine is computed once and shared by the two steps it is part of.
+     */
+    public static void cumulativeDistancesMeters(final double[] latitudesDegrees,
+                                                 final double[] longitudesDegrees,
+                                                 final int size,
+                                                 final double[] distancesMeters) {
+        double totalMeters = 0.0;
+        double lastLatitude = Double.NaN;
+        double lastLongitude = 0.0;
+        double lastCosLatitude = 0.0;
+
+        for(int i = 0; i < size; i++) {
+            double latitude = latitudesDegrees[i] * RADIANS_PER_DEGREE;
+            double longitude = longitudesDegrees[i] * RADIANS_PER_DEGREE;
+
+            if(Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                distancesMeters[i] = Double.NaN;
+                continue;
+            }
+
+            double cosLatitude = cos(latitude);
+
+            if(!Double.isNaN(lastLatitude)) {
+                totalMeters += distanceMeters(lastLatitude, lastLongitude, lastCosLatitude, latitude, longitude, cosLatitude);
+            }
+
+            distancesMeters[i] = totalMeters;
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+            lastCosLatitude = cosLatitude;
+        }
+    }
+
+    /**
+     * Latitudes and longitudes in radians.
+     */
+    static double distanceMeters(final double latitude1,
+                                 final double longitude1,
+                                 final double cosLatitude1,
+                                 final double latitude2,
+                                 final double longitude2,
+                                 final double cosLatitude2) {
+        double deltaLatitude = latitude2 - latitude1;
+        double deltaLongitude = longitude2 - longitude1;
+
+        // Steps across the antimeridian.
+        if(deltaLongitude > Math.PI) {
+            deltaLongitude -= 2.0 * Math.PI;
+        } else if(deltaLongitude < -Math.PI) {
+            deltaLongitude += 2.0 * Math.PI;
+        }
+
+        if(Math.abs(deltaLatitude) < SMALL_ANGLE && Math.abs(deltaLongitude) < SMALL_ANGLE) {
+            double sinHalfLatitude = sinSmall(0.5 * deltaLatitude);
+            double sinHalfLongitude = sinSmall(0.5 * deltaLongitude);
+            double haversine = sinHalfLatitude * sinHalfLatitude + cosLatitude1 * cosLatitude2 * sinHalfLongitude * sinHalfLongitude;
+            return 2.0 * EARTH_RADIUS_METERS * asinSmall(Math.sqrt(haversine));
+        }
+
+        double sinHalfLatitude = Math.sin(0.5 * deltaLatitude);
+        double sinHalfLongitude = Math.sin(0.5 * deltaLongitude);
+        double haversine = sinHalfLatitude * sinHalfLatitude + cosLatitude1 * cosLatitude2 * sinHalfLongitude * sinHalfLongitude;
+        return 2.0 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(haversine)));
+    }
+
+    /**
+     * Taylor series to x^7, the first omitted term is below 1e-20 of x for |x| < 0.005.
+     */
+    private static double sinSmall(final double x) {
+        double x2 = x * x;
+        return x * (1.0 + x2 * (-1.0 / 6.0 + x2 * (1.0 / 120.0 + x2 * (-1.0 / 5040.0))));
+    }
+
+    /**
+     * Taylor series to x^7, for the arcsine of the sine of half a small angle.
+     */
+    private static double asinSmall(final double x) {
+        double x2 = x * x;
+        return x * (1.0 + x2 * (1.0 / 6.0 + x2 * (3.0 / 40.0 + x2 * (5.0 / 112.0))));
+    }
+
+    /**
+     * Taylor series to x^20, within about 1e-16 of Math.cos on [-pi/2, pi/2], which holds every latitude.
+     */
+    static double cos(final double x) {
+        double x2 = x * x;
+        return 1.0 + x2 * (COS_2 + x2 * (COS_4 + x2 * (COS_6 + x2 * (COS_8 + x2 * (COS_10
+                + x2 * (COS_12 + x2 * (COS_14 + x2 * (COS_16 + x2 * (COS_18 + x2 * COS_20)))))))));
+    }
+}
@@ -0,0 +1,47 @@
+package us.maukamakai.libtcx.computed;
+
+import us.maukamakai.libtcx.reader.LapSummary;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lap summary values plus the half-open range [startIndex, endIndex) its points occupy in the activity's
+ * point buffer. The points themselves are not copied.
+ */
+public class Lap {
+    private final LapSummary summary;
+    private final int startIndex;
+    private final int endIndex;
+    private final List<TrackSegment> trackSegments;
+
+    public Lap(final LapSummary summary, final int startIndex, final int endIndex, final List<TrackSegment> trackSegments) {
+        this.summary = summary;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.trackSegments = Collections.unmodifiableList(trackSegments);
+    }
+
+    /**
+     * The totals the lap records about itself, the same values TcxSummaryReader reads.
+     */
+    public final LapSummary getSummary() {
+        return this.summary;
+    }
+
+    public final int getStartIndex() {
+        return this.startIndex;
+    }
+
+    public final int getEndIndex() {
+        return this.endIndex;
+    }
+
+    public final int size() {
+        return this.endIndex - this.startIndex;
+    }
+
+    public final List<TrackSegment> getTrackSegments() {
+        return this.trackSegments;
+    }
+}
@@ -0,0 +1,308 @@
+package us.maukamakai.libtcx.computed;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The best average of a channel, power or heart rate, over each of a set of durations.
+ *
+ * The channel is resampled to one value per second and summed into a prefix array, so the average of any window is
+ * one subtraction. Each duration is then a single O(n) scan, and with log-spaced durations the whole curve costs
+ * O(n log n) instead of the O(n^2) of every duration from 1 s to the length of the activity.
+ *
+ * Each recorded value holds until the next one for at most the recording interval, the median time between points
+ * that recorded the channel. The rest of a longer gap, a pause or a dropout, counts as zero watts for power and
+ * breaks heart rate, whose windows never span it, so a pause can not stretch the last value into a fake best.
+ *
+ * A new curve is empty. Merge the curves of many activities into one to get season bests, the best average for every
+ * duration any of them covered and when it started.
+ */
+public class MeanMaximalCurve {
+    /**
+     * Ratio between consecutive default durations past the first minute.
+     */
+    private static final double DURATION_RATIO = 1.05;
+
+    /**
+     * The longest span from the first to the last recorded value that is resampled, a week. The prefix arrays take 12
+     * bytes per second of it.
+     */
+    private static final long MAX_SPAN_SECONDS = 7L * 24L * 60L * 60L;
+
+    private int[] durationsSeconds;
+    private double[] means;
+    private long[] startEpochMillis;
+    private int size;
+
+    public MeanMaximalCurve() {
+        this.durationsSeconds = new int[0];
+        this.means = new double[0];
+        this.startEpochMillis = new long[0];
+        this.size = 0;
+    }
+
+    private MeanMaximalCurve(final int[] durationsSeconds, final double[] means, final long[] startEpochMillis, final int size) {
+        this.durationsSeconds = durationsSeconds;
+        this.means = means;
+        this.startEpochMillis = startEpochMillis;
+        this.size = size;
+    }
+
+    /**
+     * Every second to a minute, then durations 5% apart up to maxSeconds. The sequence is the same for every activity,
+     * so curves of activities of different lengths line up when merged.
+     */
+    public static int[] logSpacedDurations(final int maxSeconds) {
+        int[] durationsSeconds = new int[16];
+        int size = 0;
+
+        for(int durationSeconds = 1; durationSeconds > 0 && durationSeconds <= maxSeconds; ) {
+            if(size == durationsSeconds.length) {
+                durationsSeconds = Arrays.copyOf(durationsSeconds, size * 2);
+            }
+
+            durationsSeconds[size++] = durationSeconds;
+            durationSeconds = durationSeconds < 60 ? durationSeconds + 1 : (int) Math.ceil(durationSeconds * DURATION_RATIO);
+        }
+
+        return Arrays.copyOf(durationsSeconds, size);
+    }
+
+    /**
+     * The curve of one channel of a track over increasing durationsSeconds. Durations longer than the track, or than
+     * its longest stretch without a gap when gaps break windows, are left out, and the curve is empty when no point
+     * recorded the channel. A track spanning more than a week, usually from one bogus timestamp, is rejected.
+     */
+    static MeanMaximalCurve of(final ColumnarTrack track,
+                               final IntPredicate hasValue,
+                               final IntUnaryOperator value,
+                               final boolean isGapZero,
+                               final int[] durationsSeconds) {
+        for(int i = 0; i < durationsSeconds.length; i++) {
+            if(durationsSeconds[i] <= 0 || (i > 0 && durationsSeconds[i] <= durationsSeconds[i - 1])) {
+                throw new IllegalArgumentException("Error: durations must be positive and increasing.");
+            }
+        }
+
+        int first = 0;
+
+        while(first < track.size() && !hasValue.test(first)) {
+            first++;
+        }
+
+        if(first == track.size()) {
+            return new MeanMaximalCurve();
+        }
+
+        long firstEpochMillis = track.getEpochMillis(first);
+        int last = track.size() - 1;
+
+        while(!hasValue.test(last)) {
+            last--;
+        }
+
+        long spanSeconds = Math.max(0L, Math.floorDiv(track.getEpochMillis(last) - firstEpochMillis, 1000L)) + 1;
+
+        if(spanSeconds > MAX_SPAN_SECONDS) {
+            throw new IllegalArgumentException(String.format("Error: the channel spans %d s, more than the %d s a curve covers. Check the track for a bogus timestamp.",
+                                                             spanSeconds, MAX_SPAN_SECONDS));
+        }
+
+        int seconds = (int) spanSeconds;
+        int recordingIntervalSeconds = recordingIntervalSeconds(track, hasValue, first, last);
+        long[] prefixSums = new long[seconds + 1];
+        int[] prefixCounts = isGapZero ? null : new int[seconds + 1];
+        int second = 0;
+        int lastValue = value.applyAsInt(first);
+
+        for(int i = first + 1; i <= last; i++) {
+            if(!hasValue.test(i)) {
+                continue;
+            }
+
+            int nextSecond = Math.max(second, second(track.getEpochMillis(i), firstEpochMillis, seconds));
+            fill(prefixSums, prefixCounts, second, nextSecond, lastValue, recordingIntervalSeconds);
+            second = nextSecond;
+            lastValue = value.applyAsInt(i);
+        }
+
+        fill(prefixSums, prefixCounts, second, seconds, lastValue, recordingIntervalSeconds);
+
+        int size = 0;
+
+        while(size < durationsSeconds.length && durationsSeconds[size] <= seconds) {
+            size++;
+        }
+
+        double[] means = new double[size];
+        long[] startEpochMillis = new long[size];
+
+        for(int k = 0; k < size; k++) {
+            int durationSeconds = durationsSeconds[k];
+            long bestSum = Long.MIN_VALUE;
+            int bestStart = -1;
+
+            for(int start = 0, end = durationSeconds; end <= seconds; start++, end++) {
+                if(Objects.nonNull(prefixCounts) && prefixCounts[end] - prefixCounts[start] != durationSeconds) {
+                    continue;
+                }
+
+                long sum = prefixSums[end] - prefixSums[start];
+
+                if(sum > bestSum) {
+                    bestSum = sum;
+                    bestStart = start;
+                }
+            }
+
+            // Every window of this duration spans a gap, and so does every longer one.
+            if(bestStart < 0) {
+                size = k;
+                break;
+            }
+
+            means[k] = (double) bestSum / durationSeconds;
+            startEpochMillis[k] = firstEpochMillis + bestStart * 1000L;
+        }
+
+        return new MeanMaximalCurve(Arrays.copyOf(durationsSeconds, size), Arrays.copyOf(means, size), Arrays.copyOf(startEpochMillis, size), size);
+    }
+
+    /**
+     * Holds value over the seconds [from, to) for at most recordingIntervalSeconds, the rest of a longer gap adds zero
+     * to prefixSums and, when there are prefixCounts, is not counted as recorded.
+     */
+    private static void fill(final long[] prefixSums,
+                             final int[] prefixCounts,
+                             final int from,
+                             final int to,
+                             final int value,
+                             final int recordingIntervalSeconds) {
+        int heldTo = (int) Math.min(to, (long) from + recordingIntervalSeconds);
+
+        for(int second = from; second < to; second++) {
+            boolean isHeld = second < heldTo;
+            prefixSums[second + 1] = prefixSums[second] + (isHeld ? value : 0);
+
+            if(Objects.nonNull(prefixCounts)) {
+                prefixCounts[second + 1] = prefixCounts[second] + (isHeld ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * The median time between consecutive points that recorded the channel, in whole seconds and at least one.
+     */
+    private static int recordingIntervalSeconds(final ColumnarTrack track, final IntPredicate hasValue, final int first, final int last) {
+        long[] intervalsMillis = new long[last - first];
+        int size = 0;
+        long lastEpochMillis = track.getEpochMillis(first);
+
+        for(int i = first + 1; i <= last; i++) {
+            if(hasValue.test(i)) {
+                intervalsMillis[size++] = Math.max(0L, track.getEpochMillis(i) - lastEpochMillis);
+                lastEpochMillis = track.getEpochMillis(i);
+            }
+        }
+
+        if(size == 0) {
+            return 1;
+        }
+
+        Arrays.sort(intervalsMillis, 0, size);
+        return (int) Math.max(1L, Math.min(Integer.MAX_VALUE, (intervalsMillis[size / 2] + 999L) / 1000L));
+    }
+
+    /**
+     * The second of epochMillis since firstEpochMillis, clamped to [0, seconds].
+     */
+    private static int second(final long epochMillis, final long firstEpochMillis, final int seconds) {
+        return (int) Math.min(seconds, Math.max(0L, Math.floorDiv(epochMillis - firstEpochMillis, 1000L)));
+    }
+
+    /**
+     * Keeps the better mean of the two curves for every duration either covers, and where it started.
+     */
+    public void merge(final MeanMaximalCurve other) {
+        int[] durationsSeconds = new int[this.size + other.size];
+        double[] means = new double[this.size + other.size];
+        long[] startEpochMillis = new long[this.size + other.size];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while(i < this.size || j < other.size) {
+            int thisDuration = i < this.size ? this.durationsSeconds[i] : Integer.MAX_VALUE;
+            int otherDuration = j < other.size ? other.durationsSeconds[j] : Integer.MAX_VALUE;
+
+            if(thisDuration < otherDuration || (thisDuration == otherDuration && this.means[i] >= other.means[j])) {
+                durationsSeconds[size] = thisDuration;
+                means[size] = this.means[i];
+                startEpochMillis[size] = this.startEpochMillis[i];
+            } else {
+                durationsSeconds[size] = otherDuration;
+                means[size] = other.means[j];
+                startEpochMillis[size] = other.startEpochMillis[j];
+            }
+
+            if(thisDuration <= otherDuration) {
+                i++;
+            }
+
+            if(otherDuration <= thisDuration) {
+                j++;
+            }
+
+            size++;
+        }
+
+        this.durationsSeconds = Arrays.copyOf(durationsSeconds, size);
+        this.means = Arrays.copyOf(means, size);
+        this.startEpochMillis = Arrays.copyOf(startEpochMillis, size);
+        this.size = size;
+    }
+
+    public final int size() {
+        return this.size;
+    }
+
+    public final boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public final int getDurationSeconds(final int index) {
+        return this.durationsSeconds[index];
+    }
+
+    /**
+     * The best average in watts or beats per minute over getDurationSeconds(index).
+     */
+    public final double getMean(final int index) {
+        return this.means[index];
+    }
+
+    public final long getStartEpochMillis(final int index) {
+        return this.startEpochMillis[index];
+    }
+
+    /**
+     * The index of durationSeconds in the curve, or a negative value as for Arrays.binarySearch when it is not one of
+     * its durations.
+     */
+    public final int indexOf(final int durationSeconds) {
+        return Arrays.binarySearch(this.durationsSeconds, 0, this.size, durationSeconds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for(int i = 0; i < this.size; i++) {
+            stringBuilder.append(String.format("%d s: %.1f\n", this.durationsSeconds[i], this.means[i]));
+        }
+
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * Count, sum, min, max, mean and variance of a stream of values in constant space. The mean and variance are updated
+ * with Welford's algorithm, which stays accurate over long streams where summing squares would not.
+ *
+ * NaN marks a missing value and is ignored. Instances are not thread-safe, give each thread its own and merge them.
+ */
+public class RunningStatistics {
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+    private double mean;
+    private double squaredDeviations;
+
+    public RunningStatistics() {
+        this.count = 0;
+        this.sum = 0.0;
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+        this.mean = 0.0;
+        this.squaredDeviations = 0.0;
+    }
+
+    public void add(final double value) {
+        if(Double.isNaN(value)) {
+            return;
+        }
+
+        this.count++;
+        this.sum += value;
+
+        if(this.count == 1) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+        }
+
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squaredDeviations += delta * (value - this.mean);
+    }
+
+    /**
+     * Folds other into this, as if its values had been added here. Uses Chan et al.'s pairwise update.
+     */
+    public void merge(final RunningStatistics other) {
+        if(other.count == 0) {
+            return;
+        }
+
+        if(this.count == 0) {
+            this.count = other.count;
+            this.sum = other.sum;
+            this.min = other.min;
+            this.max = other.max;
+            this.mean = other.mean;
+            this.squaredDeviations = other.squaredDeviations;
+            return;
+        }
+
+        long count = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / count;
+        this.squaredDeviations += other.squaredDeviations + delta * delta * this.count * other.count / count;
+        this.count = count;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    public final long getCount() {
+        return this.count;
+    }
+
+    public final double getSum() {
+        return this.sum;
+    }
+
+    /**
+     * NaN when no values were added, as are the max, mean and variances.
+     */
+    public final double getMin() {
+        return this.min;
+    }
+
+    public final double getMax() {
+        return this.max;
+    }
+
+    public final double getMean() {
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    /**
+     * Population variance.
+     */
+    public final double getVariance() {
+        return this.count == 0 ? Double.NaN : this.squaredDeviations / this.count;
+    }
+
+    /**
+     * Sample variance, NaN with fewer than two values.
+     */
+    public final double getSampleVariance() {
+        return this.count < 2 ? Double.NaN : this.squaredDeviations / (this.count - 1);
+    }
+
+    public final double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, min=%.2f, max=%.2f, mean=%.2f, sd=%.2f", this.count, this.min, this.max, getMean(), getStandardDeviation());
+    }
+}
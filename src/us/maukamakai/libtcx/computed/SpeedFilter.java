@@ -0,0 +1,277 @@
+package us.maukamakai.libtcx.computed;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Smooths or gates derived speeds one point at a time without allocating, so it can run inside ColumnarTrack.Builder
+ * and TrackAccumulators as points arrive. The moving average, exponential and acceleration filters take constant time
+ * per point, the median O(window).
+ *
+ * Filters are stateful, each track needs its own instance. NaN speeds pass through without touching the state, and a
+ * filter returns NaN for a point it rejects.
+ */
+public abstract class SpeedFilter {
+    /**
+     * Passes speeds through unchanged.
+     */
+    public static final SpeedFilter NONE = new SpeedFilter() {
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            return speedKilometersPerHour;
+        }
+
+        @Override
+        public void reset() {
+        }
+    };
+
+    /**
+     * Returns the filtered speed for a point recorded at epochMillis.
+     */
+    public abstract double filter(long epochMillis, double speedKilometersPerHour);
+
+    /**
+     * Forgets every point seen so far, so the filter can start on another track.
+     */
+    public abstract void reset();
+
+    /**
+     * Feeds this filter's output into next, e.g. maxAcceleration(4.0).then(median(5)).
+     */
+    public SpeedFilter then(final SpeedFilter next) {
+        return new Chain(this, Objects.requireNonNull(next));
+    }
+
+    /**
+     * Mean of the last window speeds.
+     */
+    public static SpeedFilter movingAverage(final int window) {
+        return new MovingAverage(requirePositive(window));
+    }
+
+    /**
+     * Exponentially weighted mean, each speed moves the output alpha of the way towards it. alpha is in (0, 1].
+     */
+    public static SpeedFilter exponential(final double alpha) {
+        if(!(alpha > 0.0 && alpha <= 1.0)) {
+            throw new IllegalArgumentException(String.format("Error: alpha must be in (0, 1], was %s.", alpha));
+        }
+
+        return new Exponential(alpha);
+    }
+
+    /**
+     * Median of the last window speeds, which drops single spikes entirely instead of spreading them like a mean.
+     * Each point costs O(window), meant for windows of a few dozen points.
+     */
+    public static SpeedFilter median(final int window) {
+        return new Median(requirePositive(window));
+    }
+
+    /**
+     * Rejects a speed that would need more than maxMetersPerSecondSquared of acceleration or deceleration from the
+     * last accepted one. The allowed change grows with the time since that speed, so the gate recovers after a real
+     * jump instead of locking out every later point.
+     */
+    public static SpeedFilter maxAcceleration(final double maxMetersPerSecondSquared) {
+        if(!(maxMetersPerSecondSquared > 0.0)) {
+            throw new IllegalArgumentException(String.format("Error: maxMetersPerSecondSquared must be positive, was %s.", maxMetersPerSecondSquared));
+        }
+
+        return new AccelerationGate(maxMetersPerSecondSquared);
+    }
+
+    private static int requirePositive(final int window) {
+        if(window < 1) {
+            throw new IllegalArgumentException(String.format("Error: window must be positive, was %d.", window));
+        }
+
+        return window;
+    }
+
+    private static class Chain extends SpeedFilter {
+        private final SpeedFilter first;
+        private final SpeedFilter second;
+
+        private Chain(final SpeedFilter first, final SpeedFilter second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            return this.second.filter(epochMillis, this.first.filter(epochMillis, speedKilometersPerHour));
+        }
+
+        @Override
+        public void reset() {
+            this.first.reset();
+            this.second.reset();
+        }
+    }
+
+    /**
+     * Keeps a ring of the window and a running sum, re-summed once per lap of the ring so rounding can not build up.
+     */
+    private static class MovingAverage extends SpeedFilter {
+        private final double[] ring;
+        private double sum;
+        private int next;
+        private int count;
+
+        private MovingAverage(final int window) {
+            this.ring = new double[window];
+            reset();
+        }
+
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            if(Double.isNaN(speedKilometersPerHour)) {
+                return speedKilometersPerHour;
+            }
+
+            if(this.count == this.ring.length) {
+                this.sum -= this.ring[this.next];
+            } else {
+                this.count++;
+            }
+
+            this.ring[this.next] = speedKilometersPerHour;
+            this.sum += speedKilometersPerHour;
+            this.next = (this.next + 1) % this.ring.length;
+
+            if(this.next == 0) {
+                this.sum = 0.0;
+
+                for(double speed : this.ring) {
+                    this.sum += speed;
+                }
+            }
+
+            return this.sum / this.count;
+        }
+
+        @Override
+        public void reset() {
+            this.sum = 0.0;
+            this.next = 0;
+            this.count = 0;
+        }
+    }
+
+    private static class Exponential extends SpeedFilter {
+        private final double alpha;
+        private double value;
+
+        private Exponential(final double alpha) {
+            this.alpha = alpha;
+            reset();
+        }
+
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            if(Double.isNaN(speedKilometersPerHour)) {
+                return speedKilometersPerHour;
+            }
+
+            this.value = Double.isNaN(this.value) ? speedKilometersPerHour : this.value + this.alpha * (speedKilometersPerHour - this.value);
+            return this.value;
+        }
+
+        @Override
+        public void reset() {
+            this.value = Double.NaN;
+        }
+    }
+
+    /**
+     * Keeps the window both in arrival order, to know which speed leaves, and sorted, to read the median. The leaving
+     * and arriving speeds are found by binary search and shifted into place, O(window) per point, which for windows of a
+     * few dozen points is still cheaper than rebalancing two heaps and allocates nothing.
+     */
+    private static class Median extends SpeedFilter {
+        private final double[] ring;
+        private final double[] sorted;
+        private int next;
+        private int count;
+
+        private Median(final int window) {
+            this.ring = new double[window];
+            this.sorted = new double[window];
+            reset();
+        }
+
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            if(Double.isNaN(speedKilometersPerHour)) {
+                return speedKilometersPerHour;
+            }
+
+            if(this.count == this.ring.length) {
+                int leaving = Arrays.binarySearch(this.sorted, 0, this.count, this.ring[this.next]);
+                System.arraycopy(this.sorted, leaving + 1, this.sorted, leaving, this.count - leaving - 1);
+                this.count--;
+            }
+
+            int arriving = Arrays.binarySearch(this.sorted, 0, this.count, speedKilometersPerHour);
+            arriving = arriving < 0 ? -arriving - 1 : arriving;
+            System.arraycopy(this.sorted, arriving, this.sorted, arriving + 1, this.count - arriving);
+            this.sorted[arriving] = speedKilometersPerHour;
+            this.count++;
+
+            this.ring[this.next] = speedKilometersPerHour;
+            this.next = (this.next + 1) % this.ring.length;
+
+            int middle = this.count / 2;
+            return this.count % 2 == 1 ? this.sorted[middle] : (this.sorted[middle - 1] + this.sorted[middle]) / 2.0;
+        }
+
+        @Override
+        public void reset() {
+            this.next = 0;
+            this.count = 0;
+        }
+    }
+
+    private static class AccelerationGate extends SpeedFilter {
+        private final double maxMetersPerSecondSquared;
+        private long lastEpochMillis;
+        private double lastSpeedKilometersPerHour;
+
+        private AccelerationGate(final double maxMetersPerSecondSquared) {
+            this.maxMetersPerSecondSquared = maxMetersPerSecondSquared;
+            reset();
+        }
+
+        @Override
+        public double filter(final long epochMillis, final double speedKilometersPerHour) {
+            if(Double.isNaN(speedKilometersPerHour)) {
+                return speedKilometersPerHour;
+            }
+
+            if(Double.isInfinite(speedKilometersPerHour)) {
+                return Double.NaN;
+            }
+
+            if(!Double.isNaN(this.lastSpeedKilometersPerHour)) {
+                double deltaMetersPerSecond = Math.abs(speedKilometersPerHour - this.lastSpeedKilometersPerHour) / 3.6;
+                double deltaSeconds = (epochMillis - this.lastEpochMillis) / 1000.0;
+
+                if(deltaMetersPerSecond > this.maxMetersPerSecondSquared * deltaSeconds) {
+                    return Double.NaN;
+                }
+            }
+
+            this.lastEpochMillis = epochMillis;
+            this.lastSpeedKilometersPerHour = speedKilometersPerHour;
+            return speedKilometersPerHour;
+        }
+
+        @Override
+        public void reset() {
+            this.lastEpochMillis = 0;
+            this.lastSpeedKilometersPerHour = Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package us.maukamakai.libtcx.computed;
+
+import java.util.Objects;
+
+/**
+ * How a track's speeds are derived, shared by ColumnarTrack.Builder and TrackAccumulators so every reader gets the
+ * same speed column for the same document.
+ *
+ * The first point's speed is 0.0. Every later point with a distance, and a time after the last point that had one,
+ * gets the speed since that point through the SpeedFilter, every other point gets NaN.
+ */
+final class SpeedSource {
+    private SpeedFilter speedFilter;
+    private long lastDistanceEpochMillis;
+    private double lastDistanceMeters;
+    private boolean isFirst;
+
+    SpeedSource() {
+        this.speedFilter = SpeedFilter.NONE;
+        this.lastDistanceMeters = Double.NaN;
+        this.isFirst = true;
+    }
+
+    /**
+     * The filter is reset and must not be shared.
+     */
+    void speedFilter(final SpeedFilter speedFilter) {
+        this.speedFilter = Objects.requireNonNull(speedFilter);
+        this.speedFilter.reset();
+    }
+
+    /**
+     * The speed of the next point in kilometers per hour.
+     */
+    double speedKilometersPerHour(final long epochMillis, final double distanceMeters) {
+        boolean isAfterLastDistance = Double.isNaN(this.lastDistanceMeters) || epochMillis > this.lastDistanceEpochMillis;
+        double speedKilometersPerHour;
+
+        if(this.isFirst) {
+            speedKilometersPerHour = 0.0;
+        } else if(Double.isNaN(distanceMeters) || Double.isNaN(this.lastDistanceMeters) || !isAfterLastDistance) {
+            speedKilometersPerHour = Double.NaN;
+        } else {
+            double deltaDistanceKilometers = (distanceMeters - this.lastDistanceMeters) / 1000.0;
+            double deltaTimeHours = (epochMillis - this.lastDistanceEpochMillis)
+                    / 1000.0    // Milliseconds in a seconds
+                    / 60.0      // Seconds in a minute
+                    / 60.0;     // Minutes in an hour
+
+            speedKilometersPerHour = this.speedFilter.filter(epochMillis, deltaDistanceKilometers / deltaTimeHours);
+        }
+
+        if(!Double.isNaN(distanceMeters) && isAfterLastDistance) {
+            this.lastDistanceMeters = distanceMeters;
+            this.lastDistanceEpochMillis = epochMillis;
+        }
+
+        this.isFirst = false;
+        return speedKilometersPerHour;
+    }
+}
@@ -4,8 +4,6 @@ import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackT;
 import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
 import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
 
-import javax.xml.datatype.XMLGregorianCalendar;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -22,9 +20,13 @@ public class Track {
         this.trackPoints = this.computeTrackPoints(trackT);
     }
 
+    /**
+     * Shares ColumnarTrack.Builder's single pass, so Trackpoints missing a position, altitude, distance or heart rate
+     * come through with NaN or ColumnarTrack.NO_HEART_RATE in place of the missing values. Distances come
+     * from positions when the first point with a position records none, see ColumnarTrack.Builder.distanceFromPositions.
+     */
     private final List<TrackPoint> computeTrackPoints(final TrackT trackT) {
         List<TrackPoint> emptyList = Collections.emptyList();
-        List<TrackPoint> results = new ArrayList<>();
 
         if(Objects.isNull(trackT)) {
             return emptyList;
@@ -36,53 +38,16 @@ public class Track {
             return emptyList;
         }
 
-        if(trackPointTs.size() < 2) {
-            return emptyList;
-        }
-
-        TrackpointT firstTrackPoint = trackPointTs.get(0);
-        results.add(new TrackPoint(
-                firstTrackPoint.getTime().toGregorianCalendar().toZonedDateTime(),
-                firstTrackPoint.getPosition().getLatitudeDegrees(),
-                firstTrackPoint.getPosition().getLongitudeDegrees(),
-                firstTrackPoint.getAltitudeMeters(),
-                firstTrackPoint.getDistanceMeters(),
-                firstTrackPoint.getHeartRateBpm().getValue(),
-                0.0
-        ));
+        ColumnarTrack.Builder builder = new ColumnarTrack.Builder(trackPointTs.size());
 
-        for(int i = 1; i < trackPointTs.size(); i++) {
-            TrackpointT prev = trackPointTs.get(i - 1);
-            TrackpointT cur = trackPointTs.get(i);
-
-            results.add(new TrackPoint(
-                    zonedDateTimeFromXMLGregorianCalendar(cur.getTime()),
-                    cur.getPosition().getLatitudeDegrees(),
-                    cur.getPosition().getLongitudeDegrees(),
-                    cur.getAltitudeMeters(),
-                    cur.getDistanceMeters(),
-                    cur.getHeartRateBpm().getValue(),
-                    getSpeedKilometersPerHour(prev, cur)
-            ));
+        for(TrackpointT trackpointT : trackPointTs) {
+            builder.add(trackpointT);
         }
 
-        return results;
-    }
-
-    private ZonedDateTime zonedDateTimeFromXMLGregorianCalendar(final XMLGregorianCalendar xmlGregorianCalendar) {
-        return xmlGregorianCalendar.toGregorianCalendar().toZonedDateTime();
-    }
-
-    private double getSpeedKilometersPerHour(final TrackpointT a, final TrackpointT b) {
-        double deltaDistanceMeters = b.getDistanceMeters() - a.getDistanceMeters();
-        double deltaTimeMilliseconds =  b.getTime().toGregorianCalendar().toInstant().toEpochMilli() -
-                                        a.getTime().toGregorianCalendar().toInstant().toEpochMilli();
-        double deltaDistanceKilometers = deltaDistanceMeters / 1000.0;
-        double deltaTimeHours = deltaTimeMilliseconds
-                / 1000.0    // Milliseconds in a seconds
-                / 60.0      // Seconds in a minute
-                / 60.0;     // Minutes in an hour
+        if(builder.size() < 2) {
+            return emptyList;
+        }
 
-        return deltaDistanceKilometers / deltaTimeHours;
+        return new ArrayList<>(builder.build().asTrackPoints());
     }
 }
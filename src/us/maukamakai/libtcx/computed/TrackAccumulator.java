@@ -0,0 +1,13 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * Aggregates Trackpoints one at a time as they are parsed, so a statistic is ready when parsing finishes without a
+ * second pass or any retained points. Fed by TrackAccumulators, see TcxStreamReader.accumulate.
+ */
+@FunctionalInterface
+public interface TrackAccumulator {
+    /**
+     * The sample is reused for the next point, copy out whatever needs to outlive the call.
+     */
+    void add(TrackSample sample);
+}
@@ -0,0 +1,96 @@
+package us.maukamakai.libtcx.computed;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Decodes each Trackpoint once into a TrackSample, derives its distance and speed the way ColumnarTrack.Builder does and
+ * hands it to every attached TrackAccumulator. As a Consumer it plugs straight into TcxStreamReader.read.
+ *
+ * Instances are not thread-safe and keep no points, only the last distance and time needed for speed.
+ */
+public class TrackAccumulators implements Consumer<TrackpointT> {
+    private final TrackAccumulator[] accumulators;
+    private final TrackSample sample;
+    private final SpeedSource speedSource;
+    private final DistanceSource distanceSource;
+    private int count;
+
+    public TrackAccumulators(final TrackAccumulator... accumulators) {
+        this(SpeedFilter.NONE, accumulators);
+    }
+
+    /**
+     * Derived speeds go through speedFilter before the accumulators see them. The filter is reset and must not be
+     * shared.
+     */
+    public TrackAccumulators(final SpeedFilter speedFilter, final TrackAccumulator... accumulators) {
+        this.speedSource = new SpeedSource();
+        this.speedSource.speedFilter(speedFilter);
+        this.accumulators = Objects.requireNonNull(accumulators).clone();
+
+        for(TrackAccumulator accumulator : this.accumulators) {
+            Objects.requireNonNull(accumulator);
+        }
+
+        this.sample = new TrackSample();
+        this.distanceSource = new DistanceSource();
+        this.count = 0;
+    }
+
+    /**
+     * Trackpoints without a Time are skipped, as ColumnarTrack.Builder skips them.
+     */
+    @Override
+    public void accept(final TrackpointT trackpointT) {
+        if(this.sample.decode(trackpointT)) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Feeds a point that is already decoded, with the markers of ColumnarTrack.Builder's nine channel add.
+     */
+    public void add(final long epochMillis,
+                    final double latitudeDegrees,
+                    final double longitudeDegrees,
+                    final double altitudeMeters,
+                    final double distanceMeters,
+                    final short heartRateBpm,
+                    final short cadenceRpm,
+                    final int powerWatts,
+                    final double sensorSpeedMetersPerSecond) {
+        this.sample.epochMillis = epochMillis;
+        this.sample.latitudeDegrees = latitudeDegrees;
+        this.sample.longitudeDegrees = longitudeDegrees;
+        this.sample.altitudeMeters = altitudeMeters;
+        this.sample.distanceMeters = distanceMeters;
+        this.sample.heartRateBpm = heartRateBpm;
+        this.sample.cadenceRpm = cadenceRpm;
+        this.sample.powerWatts = powerWatts;
+        this.sample.sensorSpeedMetersPerSecond = sensorSpeedMetersPerSecond;
+        dispatch();
+    }
+
+    private void dispatch() {
+        TrackSample sample = this.sample;
+        sample.index = this.count;
+        sample.distanceMeters = this.distanceSource.distanceMeters(sample.latitudeDegrees, sample.longitudeDegrees, sample.distanceMeters);
+        sample.speedKilometersPerHour = this.speedSource.speedKilometersPerHour(sample.epochMillis, sample.distanceMeters);
+
+        for(TrackAccumulator accumulator : this.accumulators) {
+            accumulator.add(sample);
+        }
+
+        this.count++;
+    }
+
+    /**
+     * How many points have been fed to the accumulators.
+     */
+    public int size() {
+        return this.count;
+    }
+}
@@ -1,10 +1,13 @@
 package us.maukamakai.libtcx.computed;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Objects;
 
 public class TrackPoint implements Comparable<TrackPoint> {
-    private final ZonedDateTime timestamp;
+    private final long epochMillis;
+    private final ZoneId zone;
     private final double latitudeDegrees;
     private final double longitudeDegrees;
     private final double altitudeMeters;
@@ -12,7 +15,7 @@ public class TrackPoint implements Comparable<TrackPoint> {
     private final short heartRateBpm;
     private final double speedKilometersPerHour;
 
-    private final double FEET_PER_METER = 3.28084;
+    private static final double FEET_PER_METER = 3.28084;
 
 
     public TrackPoint(final ZonedDateTime timestamp,
@@ -22,7 +25,29 @@ public class TrackPoint implements Comparable<TrackPoint> {
                       final double distanceMeters,
                       final short heartRateBpm,
                       final double speedKilometersPerHour) {
-        this.timestamp = timestamp;
+        this(timestamp.toInstant().toEpochMilli(),
+             timestamp.getZone(),
+             latitudeDegrees,
+             longitudeDegrees,
+             altitudeMeters,
+             distanceMeters,
+             heartRateBpm,
+             speedKilometersPerHour);
+    }
+
+    /**
+     * Keeps the time as epoch millis, the ZonedDateTime is only built when getTimestamp is called.
+     */
+    public TrackPoint(final long epochMillis,
+                      final ZoneId zone,
+                      final double latitudeDegrees,
+                      final double longitudeDegrees,
+                      final double altitudeMeters,
+                      final double distanceMeters,
+                      final short heartRateBpm,
+                      final double speedKilometersPerHour) {
+        this.epochMillis = epochMillis;
+        this.zone = zone;
         this.latitudeDegrees = latitudeDegrees;
         this.longitudeDegrees = longitudeDegrees;
         this.altitudeMeters = altitudeMeters;
@@ -32,7 +57,15 @@ public class TrackPoint implements Comparable<TrackPoint> {
     }
 
     public final ZonedDateTime getTimestamp() {
-        return this.timestamp;
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(this.epochMillis), this.zone);
+    }
+
+    public final long getEpochMillis() {
+        return this.epochMillis;
+    }
+
+    public final ZoneId getZone() {
+        return this.zone;
     }
 
     public final double getLatitudeDegrees() {
@@ -73,7 +106,8 @@ public class TrackPoint implements Comparable<TrackPoint> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.timestamp,
+        return Objects.hash(this.epochMillis,
+                            this.zone,
                             this.latitudeDegrees,
                             this.longitudeDegrees,
                             this.altitudeMeters,
@@ -92,24 +126,27 @@ public class TrackPoint implements Comparable<TrackPoint> {
         }
 
         TrackPoint trackPoint = (TrackPoint) other;
-        return  this.timestamp.equals(trackPoint.timestamp)             &&
-                this.latitudeDegrees    == trackPoint.latitudeDegrees   &&
-                this.longitudeDegrees   == trackPoint.longitudeDegrees  &&
-                this.altitudeMeters     == trackPoint.altitudeMeters    &&
-                this.distanceMeters     == trackPoint.distanceMeters    &&
-                this.heartRateBpm       == trackPoint.heartRateBpm      &&
-                this.speedKilometersPerHour == trackPoint.speedKilometersPerHour;
+        // Double.compare so points with NaN for a missing channel still equal themselves.
+        return  this.epochMillis        == trackPoint.epochMillis                               &&
+                this.zone.equals(trackPoint.zone)                                               &&
+                Double.compare(this.latitudeDegrees, trackPoint.latitudeDegrees) == 0           &&
+                Double.compare(this.longitudeDegrees, trackPoint.longitudeDegrees) == 0         &&
+                Double.compare(this.altitudeMeters, trackPoint.altitudeMeters) == 0             &&
+                Double.compare(this.distanceMeters, trackPoint.distanceMeters) == 0             &&
+                this.heartRateBpm       == trackPoint.heartRateBpm                              &&
+                Double.compare(this.speedKilometersPerHour, trackPoint.speedKilometersPerHour) == 0;
     }
 
     @Override
     public int compareTo(TrackPoint trackPoint) {
-        return this.timestamp.compareTo(trackPoint.timestamp);
+        int comparison = Long.compare(this.epochMillis, trackPoint.epochMillis);
+        return comparison != 0 ? comparison : this.zone.getId().compareTo(trackPoint.zone.getId());
     }
 
     @Override
     public String toString() {
         return String.format("{\n\t%s\n\t%f, %f\n\t%f\n\t%f\n\t%d\n\t%f\n}",
-                this.timestamp,
+                this.getTimestamp(),
                 this.latitudeDegrees, this.longitudeDegrees,
                 this.altitudeMeters,
                 this.distanceMeters,
@@ -119,7 +156,7 @@ public class TrackPoint implements Comparable<TrackPoint> {
 
     public String toStringImperial() {
         return String.format("{\n\t%s\n\t%f, %f\n\t%f\n\t%f\n\t%d\n\t%f\n}",
-                this.timestamp,
+                this.getTimestamp(),
                 this.latitudeDegrees, this.longitudeDegrees,
                 this.getAltitudeFeet(),
                 this.getDistanceFeet(),
@@ -0,0 +1,145 @@
+package us.maukamakai.libtcx.computed;
+
+import com.garmin.xmlschemas.activityextension.v2.ActivityTrackpointExtensionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HeartRateInBeatsPerMinuteT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.PositionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import us.maukamakai.libtcx.reader.TcxDateTime;
+import us.maukamakai.libtcx.reader.TcxExtensions;
+
+import java.util.Objects;
+
+/**
+ * The channels of one Trackpoint as primitives, with the same NaN and NO_ markers for missing values as
+ * {@link ColumnarTrack}. A single instance is refilled for every point.
+ */
+public class TrackSample {
+    int index;
+    long epochMillis;
+    double latitudeDegrees;
+    double longitudeDegrees;
+    double altitudeMeters;
+    double distanceMeters;
+    double speedKilometersPerHour;
+    short heartRateBpm;
+    short cadenceRpm;
+    int powerWatts;
+    double sensorSpeedMetersPerSecond;
+
+    TrackSample() {
+    }
+
+    /**
+     * Fills every channel but speed from trackpointT, returns false for a Trackpoint without a Time.
+     */
+    boolean decode(final TrackpointT trackpointT) {
+        if(Objects.isNull(trackpointT) || Objects.isNull(trackpointT.getTime())) {
+            return false;
+        }
+
+        PositionT positionT = trackpointT.getPosition();
+        Double altitudeMeters = trackpointT.getAltitudeMeters();
+        Double distanceMeters = trackpointT.getDistanceMeters();
+        HeartRateInBeatsPerMinuteT heartRateT = trackpointT.getHeartRateBpm();
+        ActivityTrackpointExtensionT trackpointExtensionT = TcxExtensions.getTrackpointExtension(trackpointT);
+        Short cadenceRpm = trackpointT.getCadence();
+        Integer powerWatts = null;
+        Double sensorSpeedMetersPerSecond = null;
+
+        if(Objects.nonNull(trackpointExtensionT)) {
+            cadenceRpm = Objects.isNull(cadenceRpm) ? trackpointExtensionT.getRunCadence() : cadenceRpm;
+            powerWatts = trackpointExtensionT.getWatts();
+            sensorSpeedMetersPerSecond = trackpointExtensionT.getSpeed();
+        }
+
+        this.epochMillis = TcxDateTime.toEpochMillis(trackpointT.getTime());
+        this.latitudeDegrees = Objects.isNull(positionT) ? Double.NaN : positionT.getLatitudeDegrees();
+        this.longitudeDegrees = Objects.isNull(positionT) ? Double.NaN : positionT.getLongitudeDegrees();
+        this.altitudeMeters = Objects.isNull(altitudeMeters) ? Double.NaN : altitudeMeters;
+        this.distanceMeters = Objects.isNull(distanceMeters) ? Double.NaN : distanceMeters;
+        this.heartRateBpm = Objects.isNull(heartRateT) ? ColumnarTrack.NO_HEART_RATE : heartRateT.getValue();
+        this.cadenceRpm = Objects.isNull(cadenceRpm) ? ColumnarTrack.NO_CADENCE : cadenceRpm;
+        this.powerWatts = Objects.isNull(powerWatts) ? ColumnarTrack.NO_POWER : powerWatts;
+        this.sensorSpeedMetersPerSecond = Objects.isNull(sensorSpeedMetersPerSecond) ? Double.NaN : sensorSpeedMetersPerSecond;
+        return true;
+    }
+
+    /**
+     * How many points came before this one.
+     */
+    public final int getIndex() {
+        return this.index;
+    }
+
+    public final long getEpochMillis() {
+        return this.epochMillis;
+    }
+
+    public final double getLatitudeDegrees() {
+        return this.latitudeDegrees;
+    }
+
+    public final double getLongitudeDegrees() {
+        return this.longitudeDegrees;
+    }
+
+    public final double getAltitudeMeters() {
+        return this.altitudeMeters;
+    }
+
+    public final double getDistanceMeters() {
+        return this.distanceMeters;
+    }
+
+    /**
+     * Derived from the distance and time since the last point that had a distance, 0.0 for the first point and NaN
+     * when there is no earlier distance.
+     */
+    public final double getSpeedKilometersPerHour() {
+        return this.speedKilometersPerHour;
+    }
+
+    public final int getHeartRateBpm() {
+        return this.heartRateBpm;
+    }
+
+    public final int getCadenceRpm() {
+        return this.cadenceRpm;
+    }
+
+    public final int getPowerWatts() {
+        return this.powerWatts;
+    }
+
+    public final double getSensorSpeedMetersPerSecond() {
+        return this.sensorSpeedMetersPerSecond;
+    }
+
+    public final boolean hasPosition() {
+        return !Double.isNaN(this.latitudeDegrees) && !Double.isNaN(this.longitudeDegrees);
+    }
+
+    public final boolean hasAltitude() {
+        return !Double.isNaN(this.altitudeMeters);
+    }
+
+    public final boolean hasDistance() {
+        return !Double.isNaN(this.distanceMeters);
+    }
+
+    public final boolean hasHeartRate() {
+        return this.heartRateBpm != ColumnarTrack.NO_HEART_RATE;
+    }
+
+    public final boolean hasCadence() {
+        return this.cadenceRpm != ColumnarTrack.NO_CADENCE;
+    }
+
+    public final boolean hasPower() {
+        return this.powerWatts != ColumnarTrack.NO_POWER;
+    }
+
+    public final boolean hasSensorSpeed() {
+        return !Double.isNaN(this.sensorSpeedMetersPerSecond);
+    }
+}
@@ -0,0 +1,31 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * One TrackT of a lap, stored as the half-open range [startIndex, endIndex) of its activity's point buffer.
+ */
+public class TrackSegment {
+    private final int startIndex;
+    private final int endIndex;
+
+    public TrackSegment(final int startIndex, final int endIndex) {
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    public final int getStartIndex() {
+        return this.startIndex;
+    }
+
+    public final int getEndIndex() {
+        return this.endIndex;
+    }
+
+    public final int size() {
+        return this.endIndex - this.startIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%d, %d)", this.startIndex, this.endIndex);
+    }
+}
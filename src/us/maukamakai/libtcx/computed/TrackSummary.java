@@ -0,0 +1,145 @@
+package us.maukamakai.libtcx.computed;
+
+/**
+ * The usual activity report, duration, distance, ascent and the statistics of every channel, accumulated point by
+ * point. Attach one to TcxStreamReader.accumulate and it is complete when parsing finishes.
+ *
+ * Speeds are the derived ones in kilometers per hour, after any SpeedFilter given to TrackAccumulators, and leave out
+ * the first point, which has no speed of its own.
+ */
+public class TrackSummary implements TrackAccumulator {
+    private final RunningStatistics heartRateBpm;
+    private final RunningStatistics speedKilometersPerHour;
+    private final RunningStatistics cadenceRpm;
+    private final RunningStatistics powerWatts;
+    private final RunningStatistics altitudeMeters;
+    private long startEpochMillis;
+    private long endEpochMillis;
+    private double firstDistanceMeters;
+    private double lastDistanceMeters;
+    private double lastAltitudeMeters;
+    private double ascentMeters;
+    private double descentMeters;
+    private int size;
+
+    public TrackSummary() {
+        this.heartRateBpm = new RunningStatistics();
+        this.speedKilometersPerHour = new RunningStatistics();
+        this.cadenceRpm = new RunningStatistics();
+        this.powerWatts = new RunningStatistics();
+        this.altitudeMeters = new RunningStatistics();
+        this.firstDistanceMeters = Double.NaN;
+        this.lastDistanceMeters = Double.NaN;
+        this.lastAltitudeMeters = Double.NaN;
+        this.ascentMeters = 0.0;
+        this.descentMeters = 0.0;
+        this.size = 0;
+    }
+
+    @Override
+    public void add(final TrackSample sample) {
+        if(this.size == 0) {
+            this.startEpochMillis = sample.epochMillis;
+        }
+
+        this.endEpochMillis = sample.epochMillis;
+        this.size++;
+
+        if(sample.hasHeartRate()) {
+            this.heartRateBpm.add(sample.heartRateBpm);
+        }
+
+        if(sample.hasCadence()) {
+            this.cadenceRpm.add(sample.cadenceRpm);
+        }
+
+        if(sample.hasPower()) {
+            this.powerWatts.add(sample.powerWatts);
+        }
+
+        // The first point's 0.0 is a placeholder, not a measured speed.
+        if(sample.index > 0) {
+            this.speedKilometersPerHour.add(sample.speedKilometersPerHour);
+        }
+
+        if(sample.hasDistance()) {
+            if(Double.isNaN(this.firstDistanceMeters)) {
+                this.firstDistanceMeters = sample.distanceMeters;
+            }
+
+            this.lastDistanceMeters = sample.distanceMeters;
+        }
+
+        if(sample.hasAltitude()) {
+            this.altitudeMeters.add(sample.altitudeMeters);
+
+            if(!Double.isNaN(this.lastAltitudeMeters)) {
+                double deltaMeters = sample.altitudeMeters - this.lastAltitudeMeters;
+
+                if(deltaMeters > 0) {
+                    this.ascentMeters += deltaMeters;
+                } else {
+                    this.descentMeters -= deltaMeters;
+                }
+            }
+
+            this.lastAltitudeMeters = sample.altitudeMeters;
+        }
+    }
+
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * Seconds from the first to the last point, 0 when there are fewer than two.
+     */
+    public final double getDurationSeconds() {
+        return this.size == 0 ? 0.0 : (this.endEpochMillis - this.startEpochMillis) / 1000.0;
+    }
+
+    /**
+     * Distance covered between the first and last point that had one, NaN when none did.
+     */
+    public final double getDistanceMeters() {
+        return this.lastDistanceMeters - this.firstDistanceMeters;
+    }
+
+    /**
+     * The sum of every rise between consecutive altitudes, without smoothing.
+     */
+    public final double getAscentMeters() {
+        return this.ascentMeters;
+    }
+
+    public final double getDescentMeters() {
+        return this.descentMeters;
+    }
+
+    public final RunningStatistics getHeartRateBpm() {
+        return this.heartRateBpm;
+    }
+
+    public final RunningStatistics getSpeedKilometersPerHour() {
+        return this.speedKilometersPerHour;
+    }
+
+    public final RunningStatistics getCadenceRpm() {
+        return this.cadenceRpm;
+    }
+
+    public final RunningStatistics getPowerWatts() {
+        return this.powerWatts;
+    }
+
+    public final RunningStatistics getAltitudeMeters() {
+        return this.altitudeMeters;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d points, %.0f s, %.1f m, +%.1f/-%.1f m\nHeart rate: %s\nSpeed: %s\nCadence: %s\nPower: %s",
+                             this.size, getDurationSeconds(), getDistanceMeters(), this.ascentMeters, this.descentMeters,
+                             this.heartRateBpm, this.speedKilometersPerHour, this.cadenceRpm, this.powerWatts);
+    }
+}
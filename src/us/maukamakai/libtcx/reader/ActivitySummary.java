@@ -0,0 +1,62 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SportT;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ActivityT's Id, Sport and lap totals, read by TcxSummaryReader without its Trackpoints.
+ */
+public class ActivitySummary {
+    ZonedDateTime id;
+    SportT sport;
+    final List<LapSummary> laps = new ArrayList<>();
+
+    ActivitySummary() {
+    }
+
+    public final ZonedDateTime getId() {
+        return this.id;
+    }
+
+    public final SportT getSport() {
+        return this.sport;
+    }
+
+    public final List<LapSummary> getLaps() {
+        return Collections.unmodifiableList(this.laps);
+    }
+
+    public final double getTotalTimeSeconds() {
+        double totalTimeSeconds = 0;
+
+        for(LapSummary lap : this.laps) {
+            totalTimeSeconds += lap.totalTimeSeconds;
+        }
+
+        return totalTimeSeconds;
+    }
+
+    public final double getDistanceMeters() {
+        double distanceMeters = 0;
+
+        for(LapSummary lap : this.laps) {
+            distanceMeters += lap.distanceMeters;
+        }
+
+        return distanceMeters;
+    }
+
+    public final int getCalories() {
+        int calories = 0;
+
+        for(LapSummary lap : this.laps) {
+            calories += lap.calories;
+        }
+
+        return calories;
+    }
+}
@@ -0,0 +1,106 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityLapT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HeartRateInBeatsPerMinuteT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.IntensityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TriggerMethodT;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * The totals an ActivityLapT records about itself, read by TcxSummaryReader without its Trackpoints or taken from a
+ * bound ActivityLapT, as computed.Lap does.
+ */
+public class LapSummary {
+    ZonedDateTime startTime;
+    double totalTimeSeconds;
+    double distanceMeters;
+    double maximumSpeed = Double.NaN;
+    int calories;
+    int averageHeartRateBpm;
+    int maximumHeartRateBpm;
+    IntensityT intensity;
+    TriggerMethodT triggerMethod;
+
+    LapSummary() {
+    }
+
+    public LapSummary(final ZonedDateTime startTime,
+                      final double totalTimeSeconds,
+                      final double distanceMeters,
+                      final double maximumSpeed,
+                      final int calories,
+                      final int averageHeartRateBpm,
+                      final int maximumHeartRateBpm,
+                      final IntensityT intensity,
+                      final TriggerMethodT triggerMethod) {
+        this.startTime = startTime;
+        this.totalTimeSeconds = totalTimeSeconds;
+        this.distanceMeters = distanceMeters;
+        this.maximumSpeed = maximumSpeed;
+        this.calories = calories;
+        this.averageHeartRateBpm = averageHeartRateBpm;
+        this.maximumHeartRateBpm = maximumHeartRateBpm;
+        this.intensity = intensity;
+        this.triggerMethod = triggerMethod;
+    }
+
+    public LapSummary(final ActivityLapT activityLapT) {
+        this.startTime = Objects.isNull(activityLapT.getStartTime()) ? null : TcxDateTime.toZonedDateTime(activityLapT.getStartTime());
+        this.totalTimeSeconds = activityLapT.getTotalTimeSeconds();
+        this.distanceMeters = activityLapT.getDistanceMeters();
+        this.maximumSpeed = Objects.isNull(activityLapT.getMaximumSpeed()) ? Double.NaN : activityLapT.getMaximumSpeed();
+        this.calories = activityLapT.getCalories();
+        this.averageHeartRateBpm = heartRateOrZero(activityLapT.getAverageHeartRateBpm());
+        this.maximumHeartRateBpm = heartRateOrZero(activityLapT.getMaximumHeartRateBpm());
+        this.intensity = activityLapT.getIntensity();
+        this.triggerMethod = activityLapT.getTriggerMethod();
+    }
+
+    private static int heartRateOrZero(final HeartRateInBeatsPerMinuteT heartRateT) {
+        return Objects.isNull(heartRateT) ? 0 : heartRateT.getValue();
+    }
+
+    public final ZonedDateTime getStartTime() {
+        return this.startTime;
+    }
+
+    public final double getTotalTimeSeconds() {
+        return this.totalTimeSeconds;
+    }
+
+    public final double getDistanceMeters() {
+        return this.distanceMeters;
+    }
+
+    /**
+     * Meters per second, NaN when the lap does not record it.
+     */
+    public final double getMaximumSpeed() {
+        return this.maximumSpeed;
+    }
+
+    public final int getCalories() {
+        return this.calories;
+    }
+
+    /**
+     * 0 when the lap does not record it, as are the other heart-rate values.
+     */
+    public final int getAverageHeartRateBpm() {
+        return this.averageHeartRateBpm;
+    }
+
+    public final int getMaximumHeartRateBpm() {
+        return this.maximumHeartRateBpm;
+    }
+
+    public final IntensityT getIntensity() {
+        return this.intensity;
+    }
+
+    public final TriggerMethodT getTriggerMethod() {
+        return this.triggerMethod;
+    }
+}
@@ -0,0 +1,108 @@
+package us.maukamakai.libtcx.reader;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Hands out batch results in completion order while keeping at most maxInFlight files submitted but not yet
+ * consumed, so memory stays bounded no matter how many paths the batch covers.
+ */
+public class TcxBatchIterator<T> implements Iterator<TcxBatchResult<T>>, AutoCloseable {
+    private final Stream<Path> paths;
+    private final Iterator<Path> pathIterator;
+    private final Function<Path, T> parser;
+    private final CompletionService<TcxBatchResult<T>> completionService;
+    private final Queue<Future<TcxBatchResult<T>>> submitted;
+    private final int maxInFlight;
+    private int inFlight;
+    private boolean isClosed;
+
+    TcxBatchIterator(final Stream<Path> paths, final Function<Path, T> parser, final ExecutorService executorService, final int maxInFlight) {
+        this.paths = paths;
+        this.pathIterator = paths.iterator();
+        this.parser = parser;
+        this.completionService = new ExecutorCompletionService<>(executorService);
+        this.submitted = new ArrayDeque<>();
+        this.maxInFlight = maxInFlight;
+        this.inFlight = 0;
+        this.isClosed = false;
+        fill();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !this.isClosed && this.inFlight > 0;
+    }
+
+    @Override
+    public TcxBatchResult<T> next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            Future<TcxBatchResult<T>> future = this.completionService.take();
+            this.submitted.remove(future);
+            this.inFlight--;
+            fill();
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new TcxReaderException(String.format("Error: interrupted while waiting for batch results\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        } catch (ExecutionException e) {
+            close();
+            throw new TcxReaderException(String.format("Error parsing batch\nMessage: %s", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    private void fill() {
+        while(!this.isClosed && this.inFlight < this.maxInFlight && this.pathIterator.hasNext()) {
+            Path path = this.pathIterator.next();
+            this.submitted.add(this.completionService.submit(() -> parse(path)));
+            this.inFlight++;
+        }
+
+        if(this.inFlight == 0) {
+            close();
+        }
+    }
+
+    private TcxBatchResult<T> parse(final Path path) {
+        try {
+            return TcxBatchResult.success(path, this.parser.apply(path));
+        } catch (RuntimeException e) {
+            return TcxBatchResult.failure(path, e);
+        }
+    }
+
+    /**
+     * Cancels whatever is still in flight and releases the underlying path stream.
+     */
+    @Override
+    public void close() {
+        if(this.isClosed) {
+            return;
+        }
+
+        this.isClosed = true;
+
+        for(Future<TcxBatchResult<T>> future : this.submitted) {
+            future.cancel(true);
+        }
+
+        this.submitted.clear();
+        this.inFlight = 0;
+        this.paths.close();
+    }
+}
@@ -0,0 +1,112 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Parses many TCX files concurrently. Results come back in completion order and a file that fails to parse becomes
+ * a failed TcxBatchResult instead of aborting the batch.
+ *
+ * Any ExecutorService can be supplied. On a JDK with virtual threads, Executors.newVirtualThreadPerTaskExecutor()
+ * works as well as a fixed pool, since maxInFlight is what bounds memory.
+ */
+public class TcxBatchReader implements AutoCloseable {
+    private final TcxReader tcxReader;
+    private final ExecutorService executorService;
+    private final boolean isOwningExecutor;
+    public final int maxInFlight;
+
+    public TcxBatchReader() {
+        this(new TcxReader());
+    }
+
+    public TcxBatchReader(final TcxReader tcxReader) {
+        this(tcxReader, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TcxBatchReader(final TcxReader tcxReader, final int threads) {
+        this(tcxReader, Executors.newFixedThreadPool(Math.max(threads, 1)), Math.max(threads, 1) * 2, true);
+    }
+
+    /**
+     * The executor stays owned by the caller and is not shut down by close.
+     */
+    public TcxBatchReader(final TcxReader tcxReader, final ExecutorService executorService, final int maxInFlight) {
+        this(tcxReader, executorService, maxInFlight, false);
+    }
+
+    private TcxBatchReader(final TcxReader tcxReader, final ExecutorService executorService, final int maxInFlight, final boolean isOwningExecutor) {
+        if(Objects.isNull(tcxReader)) {
+            throw new TcxReaderException("Error: tcxReader can not be null.");
+        }
+
+        if(Objects.isNull(executorService)) {
+            throw new TcxReaderException("Error: executorService can not be null.");
+        }
+
+        if(maxInFlight < 1) {
+            throw new TcxReaderException("Error: maxInFlight must be at least 1.");
+        }
+
+        this.tcxReader = tcxReader;
+        this.executorService = executorService;
+        this.maxInFlight = maxInFlight;
+        this.isOwningExecutor = isOwningExecutor;
+    }
+
+    /**
+     * Reads every *.tcx, *.tcx.gz and *.zip file directly inside directory, see TcxInput.
+     */
+    public TcxBatchIterator<TrainingCenterDatabaseT> read(final Path directory) {
+        return read(directory, this.tcxReader::read);
+    }
+
+    public <T> TcxBatchIterator<T> read(final Path directory, final Function<Path, T> parser) {
+        if(Objects.isNull(directory)) {
+            throw new TcxReaderException("Error: directory can not be null.");
+        }
+
+        try {
+            Stream<Path> paths = Files.list(directory)
+                    .filter(Files::isRegularFile)
+                    .filter(TcxInput::isTcxFile);
+            return read(paths, parser);
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error listing directory\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    public TcxBatchIterator<TrainingCenterDatabaseT> read(final Stream<Path> paths) {
+        return read(paths, this.tcxReader::read);
+    }
+
+    /**
+     * Parses each path with parser, which must be safe to call from several threads at once.
+     */
+    public <T> TcxBatchIterator<T> read(final Stream<Path> paths, final Function<Path, T> parser) {
+        if(Objects.isNull(paths)) {
+            throw new TcxReaderException("Error: paths can not be null.");
+        }
+
+        if(Objects.isNull(parser)) {
+            throw new TcxReaderException("Error: parser can not be null.");
+        }
+
+        return new TcxBatchIterator<>(paths, parser, this.executorService, this.maxInFlight);
+    }
+
+    @Override
+    public void close() {
+        if(this.isOwningExecutor) {
+            this.executorService.shutdownNow();
+        }
+    }
+}
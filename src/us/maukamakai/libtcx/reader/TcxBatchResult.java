@@ -0,0 +1,54 @@
+package us.maukamakai.libtcx.reader;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Outcome of parsing one file in a batch, either a value or the exception that parsing it threw.
+ */
+public class TcxBatchResult<T> {
+    private final Path path;
+    private final T value;
+    private final RuntimeException error;
+
+    private TcxBatchResult(final Path path, final T value, final RuntimeException error) {
+        this.path = path;
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> TcxBatchResult<T> success(final Path path, final T value) {
+        return new TcxBatchResult<>(path, value, null);
+    }
+
+    static <T> TcxBatchResult<T> failure(final Path path, final RuntimeException error) {
+        return new TcxBatchResult<>(path, null, error);
+    }
+
+    public final Path getPath() {
+        return this.path;
+    }
+
+    public final boolean isSuccess() {
+        return Objects.isNull(this.error);
+    }
+
+    /**
+     * The parsed value, or null when parsing failed.
+     */
+    public final T getValue() {
+        return this.value;
+    }
+
+    /**
+     * The exception parsing failed with, or null on success.
+     */
+    public final RuntimeException getError() {
+        return this.error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? String.format("%s: ok", this.path) : String.format("%s: %s", this.path, this.error.getMessage());
+    }
+}
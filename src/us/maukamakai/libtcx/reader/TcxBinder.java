@@ -0,0 +1,490 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.AbstractSourceT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityLapT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityListT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ApplicationT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.BuildT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.BuildTypeT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.CourseListT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.DeviceT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.FirstSportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.FoldersT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HeartRateInBeatsPerMinuteT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.IntensityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.MultiSportSessionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.NextSportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TriggerMethodT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.VersionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.WorkoutListT;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.adapters.CollapsedStringAdapter;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Binds a TCX document into the generated TrainingCenterDatabaseT classes straight off a StAX cursor, with plain
+ * setter calls instead of JAXB's reflective runtime.
+ *
+ * Activities, with their laps, tracks, creators and extensions, and the Author are bound by hand. The rarely used
+ * Folders, Workouts, Courses and Training subtrees are handed to a JAXB Unmarshaller, which is only created once
+ * one of them turns up. Instances are not thread-safe.
+ *
+ * Every object is attached to its parent before its content is read, so when recover hits a broken or truncated
+ * document the graph built so far is consistent and ends at the last complete Trackpoint.
+ */
+class TcxBinder {
+    private static final CollapsedStringAdapter TOKEN = new CollapsedStringAdapter();
+
+    private final TrackpointParser trackpointParser;
+    private final Supplier<Unmarshaller> fallback;
+    private final Deque<String> openElements;
+    private boolean isAdvanced;
+
+    TcxBinder(final DatatypeFactory datatypeFactory, final Supplier<Unmarshaller> fallback) {
+        this.trackpointParser = new TrackpointParser(datatypeFactory);
+        this.fallback = fallback;
+        this.openElements = new ArrayDeque<>();
+    }
+
+    TrainingCenterDatabaseT bind(final XMLStreamReader reader) throws XMLStreamException {
+        TrainingCenterDatabaseT trainingCenterDatabaseT = new TrainingCenterDatabaseT();
+        bindDatabase(reader, trainingCenterDatabaseT);
+        return trainingCenterDatabaseT;
+    }
+
+    /**
+     * Binds as much of the document as can be read. Instead of throwing on malformed or truncated input, the error is
+     * returned in the TcxRecovery alongside everything bound before it.
+     */
+    TcxRecovery recover(final XMLStreamReader reader) {
+        TrainingCenterDatabaseT trainingCenterDatabaseT = new TrainingCenterDatabaseT();
+
+        try {
+            bindDatabase(reader, trainingCenterDatabaseT);
+            return new TcxRecovery(trainingCenterDatabaseT, null, null, Collections.emptyList());
+        } catch (XMLStreamException e) {
+            return new TcxRecovery(trainingCenterDatabaseT, e.getMessage(), Objects.isNull(e.getLocation()) ? reader.getLocation() : e.getLocation(), openElements());
+        } catch (IllegalArgumentException | TcxReaderException e) {
+            return new TcxRecovery(trainingCenterDatabaseT, e.getMessage(), reader.getLocation(), openElements());
+        }
+    }
+
+    private List<String> openElements() {
+        List<String> openElements = new ArrayList<>(this.openElements.size());
+        Iterator<String> iterator = this.openElements.descendingIterator();
+
+        while(iterator.hasNext()) {
+            openElements.add(iterator.next());
+        }
+
+        return openElements;
+    }
+
+    private void bindDatabase(final XMLStreamReader reader, final TrainingCenterDatabaseT trainingCenterDatabaseT) throws XMLStreamException {
+        this.isAdvanced = false;
+        this.openElements.clear();
+
+        if(reader.nextTag() != XMLStreamConstants.START_ELEMENT || !"TrainingCenterDatabase".equals(reader.getLocalName())) {
+            throw new TcxReaderException(String.format("Error: unexpected root element %s.", reader.getLocalName()));
+        }
+
+        this.openElements.push("TrainingCenterDatabase");
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Folders":
+                    trainingCenterDatabaseT.setFolders(unmarshal(reader, FoldersT.class));
+                    break;
+                case "Activities":
+                    ActivityListT activityListT = new ActivityListT();
+                    trainingCenterDatabaseT.setActivities(activityListT);
+                    bindActivityList(reader, activityListT);
+                    break;
+                case "Workouts":
+                    trainingCenterDatabaseT.setWorkouts(unmarshal(reader, WorkoutListT.class));
+                    break;
+                case "Courses":
+                    trainingCenterDatabaseT.setCourses(unmarshal(reader, CourseListT.class));
+                    break;
+                case "Author":
+                    trainingCenterDatabaseT.setAuthor(bindSource(reader));
+                    break;
+                case "Extensions":
+                    trainingCenterDatabaseT.setExtensions(this.trackpointParser.parseExtensions(reader));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private void bindActivityList(final XMLStreamReader reader, final ActivityListT activityListT) throws XMLStreamException {
+        this.openElements.push("Activities");
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Activity":
+                    ActivityT activityT = new ActivityT();
+                    activityListT.getActivity().add(activityT);
+                    bindActivity(reader, activityT);
+                    break;
+                case "MultiSportSession":
+                    MultiSportSessionT multiSportSessionT = new MultiSportSessionT();
+                    activityListT.getMultiSportSession().add(multiSportSessionT);
+                    bindMultiSportSession(reader, multiSportSessionT);
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private void bindMultiSportSession(final XMLStreamReader reader, final MultiSportSessionT multiSportSessionT) throws XMLStreamException {
+        this.openElements.push("MultiSportSession");
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Id":
+                    multiSportSessionT.setId(this.trackpointParser.parseDateTime(reader.getElementText()));
+                    break;
+                case "FirstSport":
+                    FirstSportT firstSportT = new FirstSportT();
+                    multiSportSessionT.setFirstSport(firstSportT);
+                    this.openElements.push("FirstSport");
+
+                    while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+                        if("Activity".equals(reader.getLocalName())) {
+                            ActivityT activityT = new ActivityT();
+                            firstSportT.setActivity(activityT);
+                            bindActivity(reader, activityT);
+                        } else {
+                            TrackpointParser.skipElement(reader);
+                        }
+                    }
+
+                    this.openElements.pop();
+                    break;
+                case "NextSport":
+                    NextSportT nextSportT = new NextSportT();
+                    multiSportSessionT.getNextSport().add(nextSportT);
+                    this.openElements.push("NextSport");
+
+                    while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+                        if("Transition".equals(reader.getLocalName())) {
+                            ActivityLapT transitionT = new ActivityLapT();
+                            nextSportT.setTransition(transitionT);
+                            bindLap(reader, transitionT);
+                        } else if("Activity".equals(reader.getLocalName())) {
+                            ActivityT activityT = new ActivityT();
+                            nextSportT.setActivity(activityT);
+                            bindActivity(reader, activityT);
+                        } else {
+                            TrackpointParser.skipElement(reader);
+                        }
+                    }
+
+                    this.openElements.pop();
+                    break;
+                case "Notes":
+                    multiSportSessionT.setNotes(reader.getElementText());
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private void bindActivity(final XMLStreamReader reader, final ActivityT activityT) throws XMLStreamException {
+        this.openElements.push(reader.getLocalName());
+        String sport = reader.getAttributeValue(null, "Sport");
+
+        if(Objects.nonNull(sport)) {
+            activityT.setSport(SportT.fromValue(TOKEN.unmarshal(sport)));
+        }
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Id":
+                    activityT.setId(this.trackpointParser.parseDateTime(reader.getElementText()));
+                    break;
+                case "Lap":
+                    ActivityLapT activityLapT = new ActivityLapT();
+                    activityT.getLap().add(activityLapT);
+                    bindLap(reader, activityLapT);
+                    break;
+                case "Notes":
+                    activityT.setNotes(reader.getElementText());
+                    break;
+                case "Training":
+                    activityT.setTraining(unmarshal(reader, TrainingT.class));
+                    break;
+                case "Creator":
+                    activityT.setCreator(bindSource(reader));
+                    break;
+                case "Extensions":
+                    activityT.setExtensions(this.trackpointParser.parseExtensions(reader));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private void bindLap(final XMLStreamReader reader, final ActivityLapT activityLapT) throws XMLStreamException {
+        this.openElements.push(reader.getLocalName());
+        String startTime = reader.getAttributeValue(null, "StartTime");
+
+        if(Objects.nonNull(startTime)) {
+            activityLapT.setStartTime(this.trackpointParser.parseDateTime(startTime));
+        }
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "TotalTimeSeconds":
+                    activityLapT.setTotalTimeSeconds(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "DistanceMeters":
+                    activityLapT.setDistanceMeters(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "MaximumSpeed":
+                    activityLapT.setMaximumSpeed(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "Calories":
+                    activityLapT.setCalories(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "AverageHeartRateBpm":
+                    activityLapT.setAverageHeartRateBpm(bindHeartRate(reader));
+                    break;
+                case "MaximumHeartRateBpm":
+                    activityLapT.setMaximumHeartRateBpm(bindHeartRate(reader));
+                    break;
+                case "Intensity":
+                    activityLapT.setIntensity(IntensityT.fromValue(TOKEN.unmarshal(reader.getElementText())));
+                    break;
+                case "Cadence":
+                    activityLapT.setCadence(Short.parseShort(reader.getElementText().trim()));
+                    break;
+                case "TriggerMethod":
+                    activityLapT.setTriggerMethod(TriggerMethodT.fromValue(TOKEN.unmarshal(reader.getElementText())));
+                    break;
+                case "Track":
+                    TrackT trackT = new TrackT();
+                    activityLapT.getTrack().add(trackT);
+                    bindTrack(reader, trackT);
+                    break;
+                case "Notes":
+                    activityLapT.setNotes(reader.getElementText());
+                    break;
+                case "Extensions":
+                    activityLapT.setExtensions(this.trackpointParser.parseExtensions(reader));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private void bindTrack(final XMLStreamReader reader, final TrackT trackT) throws XMLStreamException {
+        this.openElements.push("Track");
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            if("Trackpoint".equals(reader.getLocalName())) {
+                this.openElements.push("Trackpoint");
+                trackT.getTrackpoint().add(this.trackpointParser.parse(reader));
+                this.openElements.pop();
+            } else {
+                TrackpointParser.skipElement(reader);
+            }
+        }
+
+        this.openElements.pop();
+    }
+
+    private HeartRateInBeatsPerMinuteT bindHeartRate(final XMLStreamReader reader) throws XMLStreamException {
+        HeartRateInBeatsPerMinuteT heartRateT = new HeartRateInBeatsPerMinuteT();
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            if("Value".equals(reader.getLocalName())) {
+                heartRateT.setValue(Short.parseShort(reader.getElementText().trim()));
+            } else {
+                TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return heartRateT;
+    }
+
+    /**
+     * Creator and Author are abstract in the schema, the concrete Device_t or Application_t comes from xsi:type.
+     */
+    private AbstractSourceT bindSource(final XMLStreamReader reader) throws XMLStreamException {
+        String type = reader.getAttributeValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type");
+        String localType = Objects.isNull(type) ? "" : type.substring(type.indexOf(':') + 1).trim();
+
+        if("Device_t".equals(localType)) {
+            return bindDevice(reader);
+        }
+
+        if("Application_t".equals(localType)) {
+            return bindApplication(reader);
+        }
+
+        return unmarshal(reader, AbstractSourceT.class);
+    }
+
+    private DeviceT bindDevice(final XMLStreamReader reader) throws XMLStreamException {
+        DeviceT deviceT = new DeviceT();
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Name":
+                    deviceT.setName(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                case "UnitId":
+                    deviceT.setUnitId(Long.parseLong(reader.getElementText().trim()));
+                    break;
+                case "ProductID":
+                    deviceT.setProductID(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "Version":
+                    deviceT.setVersion(bindVersion(reader));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return deviceT;
+    }
+
+    private ApplicationT bindApplication(final XMLStreamReader reader) throws XMLStreamException {
+        ApplicationT applicationT = new ApplicationT();
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Name":
+                    applicationT.setName(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                case "Build":
+                    applicationT.setBuild(bindBuild(reader));
+                    break;
+                case "LangID":
+                    applicationT.setLangID(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                case "PartNumber":
+                    applicationT.setPartNumber(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return applicationT;
+    }
+
+    private BuildT bindBuild(final XMLStreamReader reader) throws XMLStreamException {
+        BuildT buildT = new BuildT();
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Version":
+                    buildT.setVersion(bindVersion(reader));
+                    break;
+                case "Type":
+                    buildT.setType(BuildTypeT.fromValue(TOKEN.unmarshal(reader.getElementText())));
+                    break;
+                case "Time":
+                    buildT.setTime(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                case "Builder":
+                    buildT.setBuilder(TOKEN.unmarshal(reader.getElementText()));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return buildT;
+    }
+
+    private VersionT bindVersion(final XMLStreamReader reader) throws XMLStreamException {
+        VersionT versionT = new VersionT();
+
+        while(nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "VersionMajor":
+                    versionT.setVersionMajor(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "VersionMinor":
+                    versionT.setVersionMinor(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "BuildMajor":
+                    versionT.setBuildMajor(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "BuildMinor":
+                    versionT.setBuildMinor(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return versionT;
+    }
+
+    /**
+     * Lets JAXB bind the element the reader is on. JAXB leaves the reader on the event after the end element, which
+     * the next nextTag call picks up instead of advancing past it.
+     */
+    private <T> T unmarshal(final XMLStreamReader reader, final Class<T> declaredType) {
+        try {
+            T value = this.fallback.get().unmarshal(reader, declaredType).getValue();
+            this.isAdvanced = true;
+            return value;
+        } catch (JAXBException e) {
+            throw new TcxReaderException(String.format("Error parsing XML file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    private int nextTag(final XMLStreamReader reader) throws XMLStreamException {
+        if(this.isAdvanced) {
+            this.isAdvanced = false;
+            int event = reader.getEventType();
+
+            if(event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+                return event;
+            }
+        }
+
+        return reader.nextTag();
+    }
+}
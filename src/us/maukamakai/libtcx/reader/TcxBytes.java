@@ -0,0 +1,150 @@
+package us.maukamakai.libtcx.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte level scanning of UTF-8 or other ASCII compatible TCX documents, used to find element boundaries without
+ * running a full XML parser. Positions are absolute indexes into the buffer.
+ */
+final class TcxBytes {
+    static final byte[] TRACK = "Track".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] TRACKPOINT = "Trackpoint".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] COURSES = "Courses".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] FRAGMENT_END = "</Track>".getBytes(StandardCharsets.US_ASCII);
+
+    private TcxBytes() {
+    }
+
+    static int indexOf(final ByteBuffer buffer, final byte b, final int start, final int end) {
+        for(int i = start; i < end; i++) {
+            if(buffer.get(i) == b) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    static boolean startsWith(final ByteBuffer buffer, final int index, final int end, final String prefix) {
+        if(index + prefix.length() > end) {
+            return false;
+        }
+
+        for(int i = 0; i < prefix.length(); i++) {
+            if(buffer.get(index + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static boolean isName(final ByteBuffer buffer, final int start, final int end, final byte[] name) {
+        if(end - start != name.length) {
+            return false;
+        }
+
+        for(int i = 0; i < name.length; i++) {
+            if(buffer.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static boolean isNameChar(final byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == '-' || b == '.' || b == ':';
+    }
+
+    /**
+     * Skips a comment, CDATA section or DOCTYPE starting at index, returning the index after it or -1 when it is not
+     * complete before end.
+     */
+    static int skipMarkup(final ByteBuffer buffer, final int index, final int end) {
+        String terminator = ">";
+
+        if(startsWith(buffer, index, end, "<!--")) {
+            terminator = "-->";
+        } else if(startsWith(buffer, index, end, "<![CDATA[")) {
+            terminator = "]]>";
+        }
+
+        for(int i = index + 2; i < end; i++) {
+            if(startsWith(buffer, i, end, terminator)) {
+                return i + terminator.length();
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * The encoding named by the XML declaration in [start, end), UTF-8 when there is none.
+     */
+    static String encodingOf(final ByteBuffer buffer, final int start, final int end) {
+        byte[] declaration = new byte[end - start];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(end).position(start);
+        duplicate.get(declaration);
+
+        String text = new String(declaration, StandardCharsets.US_ASCII);
+        int encoding = text.indexOf("encoding");
+
+        if(encoding < 0) {
+            return StandardCharsets.UTF_8.name();
+        }
+
+        int quote = encoding + 8;
+
+        while(quote < text.length() && text.charAt(quote) != '"' && text.charAt(quote) != '\'') {
+            quote++;
+        }
+
+        int close = quote + 1 < text.length() ? text.indexOf(text.charAt(quote), quote + 1) : -1;
+        return close < 0 ? StandardCharsets.UTF_8.name() : text.substring(quote + 1, close).trim();
+    }
+
+    /**
+     * A Track start tag carrying the attributes, and so the namespace declarations, of the root start tag whose name
+     * ends at nameEnd and which closes at tagEnd. Trackpoints cut out of the document parse on their own inside it.
+     */
+    static byte[] fragmentStart(final ByteBuffer buffer, final int nameEnd, final int tagEnd) {
+        int attributesEnd = buffer.get(tagEnd - 1) == '/' ? tagEnd - 1 : tagEnd;
+        byte[] fragmentStart = new byte[1 + TRACK.length + attributesEnd - nameEnd + 1];
+        fragmentStart[0] = '<';
+        System.arraycopy(TRACK, 0, fragmentStart, 1, TRACK.length);
+
+        ByteBuffer attributes = buffer.duplicate();
+        attributes.limit(attributesEnd).position(nameEnd);
+        attributes.get(fragmentStart, 1 + TRACK.length, attributes.remaining());
+        fragmentStart[fragmentStart.length - 1] = '>';
+
+        return fragmentStart;
+    }
+
+    static boolean isCompressed(final ByteBuffer buffer) {
+        int start = buffer.position();
+
+        if(buffer.remaining() < 2) {
+            return false;
+        }
+
+        int b0 = buffer.get(start) & 0xFF;
+        int b1 = buffer.get(start + 1) & 0xFF;
+        return (b0 == 0x1F && b1 == 0x8B) || (b0 == 'P' && b1 == 'K');
+    }
+
+    static boolean isUtf16(final ByteBuffer buffer) {
+        int start = buffer.position();
+
+        if(buffer.remaining() < 2) {
+            return false;
+        }
+
+        int b0 = buffer.get(start) & 0xFF;
+        int b1 = buffer.get(start + 1) & 0xFF;
+        return b0 == 0 || b1 == 0 || b0 == 0xFE || b0 == 0xFF;
+    }
+}
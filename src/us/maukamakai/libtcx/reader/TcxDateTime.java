@@ -0,0 +1,265 @@
+package us.maukamakai.libtcx.reader;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Fast conversions for the xsd:dateTime values TCX files are full of, e.g. 2016-11-20T18:02:11.000Z. The parse methods
+ * allocate only a small array of split fields per call, TrackpointParser reuses its own and allocates nothing.
+ *
+ * Values without a timezone are treated as UTC, never as the JVM's default zone. Anything outside the common
+ * yyyy-MM-ddTHH:mm:ss[.fff][Z|+hh:mm] shape falls back to the lexical parser of DatatypeFactory under the same rule.
+ */
+public final class TcxDateTime {
+    static final int YEAR = 0;
+    static final int MONTH = 1;
+    static final int DAY = 2;
+    static final int HOUR = 3;
+    static final int MINUTE = 4;
+    static final int SECOND = 5;
+    static final int NANOS = 6;
+    static final int FRACTION_DIGITS = 7;
+    static final int OFFSET_MINUTES = 8;
+    static final int FIELD_COUNT = 9;
+
+    static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+    private static final ThreadLocal<DatatypeFactory> DATATYPE_FACTORY = ThreadLocal.withInitial(TcxDateTime::newDatatypeFactory);
+
+    private TcxDateTime() {
+    }
+
+    public static long parseEpochMillis(final CharSequence text) {
+        int[] fields = new int[FIELD_COUNT];
+
+        if(!parseFields(text, fields)) {
+            return toEpochMillis(parseCalendar(text));
+        }
+
+        return toEpochMillis(fields);
+    }
+
+    public static ZoneOffset parseOffset(final CharSequence text) {
+        int[] fields = new int[FIELD_COUNT];
+
+        if(!parseFields(text, fields)) {
+            return toZoneOffset(parseCalendar(text));
+        }
+
+        return toZoneOffset(fields[OFFSET_MINUTES]);
+    }
+
+    public static ZonedDateTime parseZonedDateTime(final CharSequence text) {
+        int[] fields = new int[FIELD_COUNT];
+
+        if(!parseFields(text, fields)) {
+            return toZonedDateTime(parseCalendar(text));
+        }
+
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(toEpochMillis(fields)), toZoneOffset(fields[OFFSET_MINUTES]));
+    }
+
+    public static long toEpochMillis(final XMLGregorianCalendar calendar) {
+        if(Objects.nonNull(calendar.getEon()) || calendar.getYear() == UNDEFINED || calendar.getMonth() == UNDEFINED ||
+                calendar.getDay() == UNDEFINED || calendar.getHour() == UNDEFINED || calendar.getMinute() == UNDEFINED ||
+                calendar.getSecond() == UNDEFINED) {
+            XMLGregorianCalendar utcCalendar = calendar;
+
+            if(calendar.getTimezone() == UNDEFINED) {
+                utcCalendar = (XMLGregorianCalendar) calendar.clone();
+                utcCalendar.setTimezone(0);
+            }
+
+            return utcCalendar.toGregorianCalendar().getTimeInMillis();
+        }
+
+        int offsetMinutes = calendar.getTimezone() == UNDEFINED ? 0 : calendar.getTimezone();
+        int millisecond = calendar.getMillisecond() == UNDEFINED ? 0 : calendar.getMillisecond();
+
+        return epochDay(calendar.getYear(), calendar.getMonth(), calendar.getDay()) * MILLIS_PER_DAY
+                + ((calendar.getHour() * 60L + calendar.getMinute() - offsetMinutes) * 60L + calendar.getSecond()) * 1000L
+                + millisecond;
+    }
+
+    public static ZoneOffset toZoneOffset(final XMLGregorianCalendar calendar) {
+        return toZoneOffset(calendar.getTimezone());
+    }
+
+    public static ZonedDateTime toZonedDateTime(final XMLGregorianCalendar calendar) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(toEpochMillis(calendar)), toZoneOffset(calendar));
+    }
+
+    private static XMLGregorianCalendar parseCalendar(final CharSequence text) {
+        return DATATYPE_FACTORY.get().newXMLGregorianCalendar(text.toString().trim());
+    }
+
+    private static DatatypeFactory newDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new TcxReaderException(String.format("Error initializing date parser\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    static ZoneOffset toZoneOffset(final int offsetMinutes) {
+        return offsetMinutes == UNDEFINED || offsetMinutes == 0 ? ZoneOffset.UTC : ZoneOffset.ofTotalSeconds(offsetMinutes * 60);
+    }
+
+    static long toEpochMillis(final int[] fields) {
+        int offsetMinutes = fields[OFFSET_MINUTES] == UNDEFINED ? 0 : fields[OFFSET_MINUTES];
+
+        return epochDay(fields[YEAR], fields[MONTH], fields[DAY]) * MILLIS_PER_DAY
+                + ((fields[HOUR] * 60L + fields[MINUTE] - offsetMinutes) * 60L + fields[SECOND]) * 1000L
+                + fields[NANOS] / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Splits text into the slots of fields, returning false when it is not in the fast-path shape.
+     */
+    static boolean parseFields(final CharSequence text, final int[] fields) {
+        int start = 0;
+        int end = text.length();
+
+        while(start < end && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+
+        while(end > start && isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        if(end - start < 19 ||
+                text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-' || text.charAt(start + 10) != 'T' ||
+                text.charAt(start + 13) != ':' || text.charAt(start + 16) != ':') {
+            return false;
+        }
+
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = digits(text, start + 17, 2);
+
+        if(year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) ||
+                hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return false;
+        }
+
+        int index = start + 19;
+        int nanos = 0;
+        int fractionDigits = 0;
+
+        if(index < end && text.charAt(index) == '.') {
+            index++;
+
+            while(index < end && isDigit(text.charAt(index))) {
+                if(fractionDigits < 9) {
+                    nanos = nanos * 10 + (text.charAt(index) - '0');
+                }
+                fractionDigits++;
+                index++;
+            }
+
+            if(fractionDigits == 0) {
+                return false;
+            }
+
+            for(int i = fractionDigits; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+
+        int offsetMinutes = UNDEFINED;
+
+        if(index < end) {
+            char sign = text.charAt(index);
+
+            if(sign == 'Z' && index + 1 == end) {
+                offsetMinutes = 0;
+            } else if((sign == '+' || sign == '-') && index + 6 == end && text.charAt(index + 3) == ':') {
+                int offsetHours = digits(text, index + 1, 2);
+                int offsetMins = digits(text, index + 4, 2);
+
+                if(offsetHours < 0 || offsetHours > 14 || offsetMins < 0 || offsetMins > 59) {
+                    return false;
+                }
+
+                offsetMinutes = (offsetHours * 60 + offsetMins) * (sign == '-' ? -1 : 1);
+            } else {
+                return false;
+            }
+        }
+
+        fields[YEAR] = year;
+        fields[MONTH] = month;
+        fields[DAY] = day;
+        fields[HOUR] = hour;
+        fields[MINUTE] = minute;
+        fields[SECOND] = second;
+        fields[NANOS] = nanos;
+        fields[FRACTION_DIGITS] = fractionDigits;
+        fields[OFFSET_MINUTES] = offsetMinutes;
+
+        return true;
+    }
+
+    private static int digits(final CharSequence text, final int start, final int count) {
+        int value = 0;
+
+        for(int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+
+            if(!isDigit(c)) {
+                return -1;
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        switch(month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar.
+     */
+    private static long epochDay(final int year, final int month, final int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
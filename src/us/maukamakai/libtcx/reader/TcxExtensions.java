@@ -0,0 +1,49 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.activityextension.v2.ActivityLapExtensionT;
+import com.garmin.xmlschemas.activityextension.v2.ActivityTrackpointExtensionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityLapT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ExtensionsT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+
+import javax.xml.bind.JAXBElement;
+import java.util.Objects;
+
+/**
+ * Typed access to the Garmin ActivityExtension v2 TPX and LX elements, which every reader binds into their
+ * generated classes instead of DOM Elements.
+ */
+public final class TcxExtensions {
+    private TcxExtensions() {
+    }
+
+    /**
+     * The TPX element carrying Speed, RunCadence and Watts, or null when the Trackpoint has none.
+     */
+    public static ActivityTrackpointExtensionT getTrackpointExtension(final TrackpointT trackpointT) {
+        return Objects.isNull(trackpointT) ? null : find(trackpointT.getExtensions(), ActivityTrackpointExtensionT.class);
+    }
+
+    /**
+     * The LX element carrying lap averages and maxima, or null when the Lap has none.
+     */
+    public static ActivityLapExtensionT getLapExtension(final ActivityLapT activityLapT) {
+        return Objects.isNull(activityLapT) ? null : find(activityLapT.getExtensions(), ActivityLapExtensionT.class);
+    }
+
+    private static <T> T find(final ExtensionsT extensionsT, final Class<T> type) {
+        if(Objects.isNull(extensionsT)) {
+            return null;
+        }
+
+        for(Object any : extensionsT.getAny()) {
+            Object value = any instanceof JAXBElement ? ((JAXBElement<?>) any).getValue() : any;
+
+            if(type.isInstance(value)) {
+                return type.cast(value);
+            }
+        }
+
+        return null;
+    }
+}
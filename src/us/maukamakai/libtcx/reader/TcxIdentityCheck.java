@@ -0,0 +1,178 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.AbstractStepT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityReferenceT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.CourseFolderT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.CourseT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.FoldersT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HistoryFolderT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HistoryT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.MultiSportFolderT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.MultiSportSessionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.NameKeyReferenceT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.RepeatT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.WorkoutFolderT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.WorkoutT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.WorkoutsT;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The TCX schema's identity constraints, checked with hash sets over a bound document instead of by the validator.
+ *
+ * Keys: Activity and MultiSportSession Ids, Workout names and Course names must each be unique. Keyrefs: every
+ * ActivityRef, MultisportActivityRef, WorkoutNameRef and CourseNameRef in Folders must name one of those keys.
+ * Uniques: StepIds must be unique within a Workout, including the steps of its Repeats, and the Folders of each workout
+ * folder must have unique names. The schema's CourseSubFolderNamesMustBeUnique selects CourseFolder children of the
+ * CourseFolder, which only has Folder children, so it constrains nothing and has no check here either.
+ */
+final class TcxIdentityCheck {
+    private TcxIdentityCheck() {
+    }
+
+    static void check(final TrainingCenterDatabaseT trainingCenterDatabaseT) {
+        Set<Object> activityIds = new HashSet<>();
+        Set<Object> multiSportIds = new HashSet<>();
+        Set<Object> workoutNames = new HashSet<>();
+        Set<Object> courseNames = new HashSet<>();
+
+        if(Objects.nonNull(trainingCenterDatabaseT.getActivities())) {
+            for(ActivityT activityT : trainingCenterDatabaseT.getActivities().getActivity()) {
+                requireUnique(activityIds, activityT.getId(), "Activity Id");
+            }
+
+            for(MultiSportSessionT multiSportSessionT : trainingCenterDatabaseT.getActivities().getMultiSportSession()) {
+                requireUnique(multiSportIds, multiSportSessionT.getId(), "MultiSportSession Id");
+            }
+        }
+
+        if(Objects.nonNull(trainingCenterDatabaseT.getWorkouts())) {
+            for(WorkoutT workoutT : trainingCenterDatabaseT.getWorkouts().getWorkout()) {
+                requireUnique(workoutNames, workoutT.getName(), "Workout Name");
+                checkStepIds(workoutT.getStep(), new HashSet<>());
+            }
+        }
+
+        if(Objects.nonNull(trainingCenterDatabaseT.getCourses())) {
+            for(CourseT courseT : trainingCenterDatabaseT.getCourses().getCourse()) {
+                requireUnique(courseNames, courseT.getName(), "Course Name");
+            }
+        }
+
+        FoldersT foldersT = trainingCenterDatabaseT.getFolders();
+
+        if(Objects.isNull(foldersT)) {
+            return;
+        }
+
+        HistoryT historyT = foldersT.getHistory();
+
+        if(Objects.nonNull(historyT)) {
+            checkHistoryFolder(historyT.getRunning(), activityIds);
+            checkHistoryFolder(historyT.getBiking(), activityIds);
+            checkHistoryFolder(historyT.getOther(), activityIds);
+            checkMultiSportFolder(historyT.getMultiSport(), multiSportIds);
+        }
+
+        WorkoutsT workoutsT = foldersT.getWorkouts();
+
+        if(Objects.nonNull(workoutsT)) {
+            checkWorkoutFolder(workoutsT.getRunning(), workoutNames);
+            checkWorkoutFolder(workoutsT.getBiking(), workoutNames);
+            checkWorkoutFolder(workoutsT.getOther(), workoutNames);
+        }
+
+        if(Objects.nonNull(foldersT.getCourses())) {
+            checkCourseFolder(foldersT.getCourses().getCourseFolder(), courseNames);
+        }
+    }
+
+    private static void checkStepIds(final List<AbstractStepT> stepTs, final Set<Object> stepIds) {
+        for(AbstractStepT stepT : stepTs) {
+            requireUnique(stepIds, stepT.getStepId(), "Workout StepId");
+
+            if(stepT instanceof RepeatT) {
+                checkStepIds(((RepeatT) stepT).getChild(), stepIds);
+            }
+        }
+    }
+
+    private static void checkHistoryFolder(final HistoryFolderT folderT, final Set<Object> activityIds) {
+        if(Objects.isNull(folderT)) {
+            return;
+        }
+
+        for(ActivityReferenceT activityReferenceT : folderT.getActivityRef()) {
+            requireKey(activityIds, activityReferenceT.getId(), "ActivityRef Id", "Activity Id");
+        }
+
+        for(HistoryFolderT childT : folderT.getFolder()) {
+            checkHistoryFolder(childT, activityIds);
+        }
+    }
+
+    private static void checkMultiSportFolder(final MultiSportFolderT folderT, final Set<Object> multiSportIds) {
+        if(Objects.isNull(folderT)) {
+            return;
+        }
+
+        for(ActivityReferenceT activityReferenceT : folderT.getMultisportActivityRef()) {
+            requireKey(multiSportIds, activityReferenceT.getId(), "MultisportActivityRef Id", "MultiSportSession Id");
+        }
+
+        for(MultiSportFolderT childT : folderT.getFolder()) {
+            checkMultiSportFolder(childT, multiSportIds);
+        }
+    }
+
+    private static void checkWorkoutFolder(final WorkoutFolderT folderT, final Set<Object> workoutNames) {
+        if(Objects.isNull(folderT)) {
+            return;
+        }
+
+        for(NameKeyReferenceT nameKeyReferenceT : folderT.getWorkoutNameRef()) {
+            requireKey(workoutNames, nameKeyReferenceT.getId(), "WorkoutNameRef Id", "Workout Name");
+        }
+
+        Set<Object> folderNames = new HashSet<>();
+
+        for(WorkoutFolderT childT : folderT.getFolder()) {
+            requireUnique(folderNames, childT.getName(), "Workout Folder Name");
+            checkWorkoutFolder(childT, workoutNames);
+        }
+    }
+
+    private static void checkCourseFolder(final CourseFolderT folderT, final Set<Object> courseNames) {
+        if(Objects.isNull(folderT)) {
+            return;
+        }
+
+        for(NameKeyReferenceT nameKeyReferenceT : folderT.getCourseNameRef()) {
+            requireKey(courseNames, nameKeyReferenceT.getId(), "CourseNameRef Id", "Course Name");
+        }
+
+        for(CourseFolderT childT : folderT.getFolder()) {
+            checkCourseFolder(childT, courseNames);
+        }
+    }
+
+    /**
+     * Ids are XMLGregorianCalendars, whose equals and hashCode compare instants the way the schema's key does.
+     */
+    private static void requireUnique(final Set<Object> values, final Object value, final String name) {
+        if(Objects.nonNull(value) && !values.add(value)) {
+            throw new TcxReaderException(String.format("Error: %s %s is not unique.", name, value));
+        }
+    }
+
+    private static void requireKey(final Set<Object> keys, final Object value, final String name, final String keyName) {
+        if(Objects.nonNull(value) && !keys.contains(value)) {
+            throw new TcxReaderException(String.format("Error: %s %s does not match any %s.", name, value, keyName));
+        }
+    }
+}
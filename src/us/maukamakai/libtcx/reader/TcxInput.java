@@ -0,0 +1,175 @@
+package us.maukamakai.libtcx.reader;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Opens TCX sources as a plain XML InputStream. Gzip and zip input is recognized by its magic bytes, not its name, and
+ * inflated as it is read, so nothing is spooled to disk or copied in memory first. For zip archives, such as Garmin
+ * exports, the first *.tcx entry is used.
+ */
+public final class TcxInput {
+    private static final int GZIP_MAGIC_0 = 0x1F;
+    private static final int GZIP_MAGIC_1 = 0x8B;
+    private static final int ZIP_MAGIC_0 = 'P';
+    private static final int ZIP_MAGIC_1 = 'K';
+    private static final int ZIP_MAGIC_2 = 0x03;
+    private static final int ZIP_MAGIC_3 = 0x04;
+
+    private TcxInput() {
+    }
+
+    public static InputStream open(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        try {
+            return open(Files.newInputStream(path));
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error opening file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    public static InputStream open(final ReadableByteChannel channel) {
+        if(Objects.isNull(channel)) {
+            throw new TcxReaderException("Error: channel can not be null.");
+        }
+
+        return open(Channels.newInputStream(channel));
+    }
+
+    public static InputStream open(final byte[] bytes) {
+        if(Objects.isNull(bytes)) {
+            throw new TcxReaderException("Error: bytes can not be null.");
+        }
+
+        return open(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Reads the buffer's remaining bytes without disturbing its position or limit.
+     */
+    public static InputStream open(final ByteBuffer buffer) {
+        if(Objects.isNull(buffer)) {
+            throw new TcxReaderException("Error: buffer can not be null.");
+        }
+
+        if(buffer.hasArray()) {
+            return open(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+        }
+
+        return open(new ByteBufferInputStream(buffer.duplicate()));
+    }
+
+    /**
+     * Wraps inputStream, inflating it when it starts with a gzip or zip header. Closing the result closes inputStream.
+     */
+    public static InputStream open(final InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            throw new TcxReaderException("Error: inputStream can not be null.");
+        }
+
+        InputStream source = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+
+        try {
+            source.mark(4);
+            int b0 = source.read();
+            int b1 = source.read();
+            int b2 = source.read();
+            int b3 = source.read();
+            source.reset();
+
+            if(b0 == GZIP_MAGIC_0 && b1 == GZIP_MAGIC_1) {
+                return new GZIPInputStream(source);
+            }
+
+            if(b0 == ZIP_MAGIC_0 && b1 == ZIP_MAGIC_1 && b2 == ZIP_MAGIC_2 && b3 == ZIP_MAGIC_3) {
+                return openZipEntry(new ZipInputStream(source));
+            }
+
+            return source;
+        } catch (IOException e) {
+            closeQuietly(source);
+            throw new TcxReaderException(String.format("Error reading input\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    private static InputStream openZipEntry(final ZipInputStream zipInputStream) throws IOException {
+        ZipEntry zipEntry;
+
+        while(Objects.nonNull(zipEntry = zipInputStream.getNextEntry())) {
+            if(!zipEntry.isDirectory() && zipEntry.getName().toLowerCase(Locale.ROOT).endsWith(".tcx")) {
+                return zipInputStream;
+            }
+        }
+
+        zipInputStream.close();
+        throw new TcxReaderException("Error: zip archive does not contain a .tcx entry.");
+    }
+
+    /**
+     * Whether path is named like a file open can read: *.tcx, *.tcx.gz or *.zip, in any case.
+     */
+    static boolean isTcxFile(final Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".tcx") || name.endsWith(".tcx.gz") || name.endsWith(".zip");
+    }
+
+    static void closeQuietly(final InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            return;
+        }
+
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+            // Already failing, the original exception is the interesting one.
+        }
+    }
+
+    static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if(length == 0) {
+                return 0;
+            }
+
+            if(!this.buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
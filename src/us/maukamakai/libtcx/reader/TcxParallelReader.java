@@ -0,0 +1,327 @@
+package us.maukamakai.libtcx.reader;
+
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses the activity Trackpoints of a single large TCX file on several cores.
+ *
+ * A quick byte scan finds the Track elements outside Courses and cuts them into chunks of whole Trackpoints. Each chunk
+ * is parsed on the ForkJoinPool as a small document that carries the root element's namespace declarations, and the
+ * chunks are stitched back in document order into one ColumnarTrack, whose speeds are derived across chunk
+ * boundaries as usual.
+ *
+ * Namespace prefixes must be declared on the root element, as every known TCX writer does. UTF-16 documents are
+ * parsed sequentially.
+ */
+public class TcxParallelReader {
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkBytes;
+    private XMLInputFactory xmlInputFactory;
+    private DatatypeFactory datatypeFactory;
+
+    public TcxParallelReader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TcxParallelReader(final ForkJoinPool forkJoinPool) {
+        this(forkJoinPool, 0);
+    }
+
+    /**
+     * chunkBytes of 0 sizes chunks so every worker gets about four, but never below 256 KiB, and only splits at Track
+     * boundaries on a single worker pool.
+     */
+    public TcxParallelReader(final ForkJoinPool forkJoinPool, final int chunkBytes) {
+        if(Objects.isNull(forkJoinPool)) {
+            throw new TcxReaderException("Error: forkJoinPool can not be null.");
+        }
+
+        if(chunkBytes < 0) {
+            throw new TcxReaderException("Error: chunkBytes can not be negative.");
+        }
+
+        this.forkJoinPool = forkJoinPool;
+        this.chunkBytes = chunkBytes;
+        init();
+    }
+
+    private void init() {
+        try {
+            this.xmlInputFactory = XMLInputFactory.newInstance();
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.datatypeFactory = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new TcxReaderException(String.format("Error initializing parallel reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Plain files are memory-mapped, gzipped and zipped ones are inflated into memory first.
+     */
+    public ColumnarTrack read(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        ByteBuffer buffer;
+
+        try(FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error opening file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        if(TcxBytes.isCompressed(buffer)) {
+            return read(inflate(TcxInput.open(buffer)));
+        }
+
+        return read(buffer);
+    }
+
+    public ColumnarTrack read(final byte[] bytes) {
+        if(Objects.isNull(bytes)) {
+            throw new TcxReaderException("Error: bytes can not be null.");
+        }
+
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads the buffer's remaining bytes without disturbing its position or limit.
+     */
+    public ColumnarTrack read(final ByteBuffer buffer) {
+        if(Objects.isNull(buffer)) {
+            throw new TcxReaderException("Error: buffer can not be null.");
+        }
+
+        if(TcxBytes.isCompressed(buffer)) {
+            return read(inflate(TcxInput.open(buffer)));
+        }
+
+        if(TcxBytes.isUtf16(buffer)) {
+            ColumnarTrack.Builder builder = new ColumnarTrack.Builder();
+            new TcxStreamReader().read(new TcxInput.ByteBufferInputStream(buffer.duplicate()), builder::add);
+            return builder.build();
+        }
+
+        Layout layout = scan(buffer, chunkBytes(buffer.remaining()));
+        List<ForkJoinTask<ColumnarTrack>> tasks = new ArrayList<>(layout.chunks.size());
+
+        for(int[] chunk : layout.chunks) {
+            tasks.add(this.forkJoinPool.submit(() -> parseChunk(buffer, layout, chunk[0], chunk[1])));
+        }
+
+        List<ColumnarTrack> tracks = new ArrayList<>(tasks.size());
+        int size = 0;
+
+        for(ForkJoinTask<ColumnarTrack> task : tasks) {
+            ColumnarTrack track = task.join();
+            tracks.add(track);
+            size += track.size();
+        }
+
+        return stitch(tracks, size);
+    }
+
+    private int chunkBytes(final int length) {
+        if(this.chunkBytes > 0) {
+            return this.chunkBytes;
+        }
+
+        if(this.forkJoinPool.getParallelism() <= 1) {
+            return Integer.MAX_VALUE;
+        }
+
+        return Math.max(MIN_CHUNK_BYTES, length / (this.forkJoinPool.getParallelism() * 4));
+    }
+
+    private ColumnarTrack parseChunk(final ByteBuffer buffer, final Layout layout, final int start, final int end) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(end).position(start);
+
+        InputStream inputStream = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                new ByteArrayInputStream(layout.fragmentStart),
+                new TcxInput.ByteBufferInputStream(slice),
+                new ByteArrayInputStream(TcxBytes.FRAGMENT_END))));
+
+        TrackpointParser trackpointParser = new TrackpointParser(this.datatypeFactory);
+
+        // Chunks keep the recorded distances, stitch decides whether the whole track derives them from positions.
+        ColumnarTrack.Builder builder = new ColumnarTrack.Builder().distanceFromPositions(false);
+
+        try {
+            XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(inputStream, layout.encoding);
+            reader.nextTag();
+
+            while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if("Trackpoint".equals(reader.getLocalName())) {
+                    builder.add(trackpointParser.parse(reader));
+                } else {
+                    TrackpointParser.skipElement(reader);
+                }
+            }
+
+            reader.close();
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new TcxReaderException(String.format("Error parsing XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        return builder.build();
+    }
+
+    private static ColumnarTrack stitch(final List<ColumnarTrack> tracks, final int size) {
+        ColumnarTrack.Builder builder = new ColumnarTrack.Builder(size);
+        boolean hasZone = false;
+
+        for(ColumnarTrack track : tracks) {
+            if(!hasZone && !track.isEmpty()) {
+                builder.zone(track.getZone());
+                hasZone = true;
+            }
+
+            for(int i = 0; i < track.size(); i++) {
+                builder.add(track.getEpochMillis(i),
+                            track.getLatitudeDegrees(i),
+                            track.getLongitudeDegrees(i),
+                            track.getAltitudeMeters(i),
+                            track.getDistanceMeters(i),
+                            (short) track.getHeartRateBpm(i),
+                            (short) track.getCadenceRpm(i),
+                            track.getPowerWatts(i),
+                            track.getSensorSpeedMetersPerSecond(i));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Where the chunks of whole Trackpoints are, plus what is needed to parse each one on its own.
+     */
+    private static class Layout {
+        private final List<int[]> chunks = new ArrayList<>();
+        private byte[] fragmentStart = "<Track>".getBytes(StandardCharsets.US_ASCII);
+        private String encoding = StandardCharsets.UTF_8.name();
+    }
+
+    private static Layout scan(final ByteBuffer buffer, final int chunkBytes) {
+        Layout layout = new Layout();
+        int end = buffer.limit();
+        int index = buffer.position();
+        int coursesDepth = 0;
+        int chunkStart = -1;
+        boolean isRoot = true;
+
+        while((index = TcxBytes.indexOf(buffer, (byte) '<', index, end)) >= 0 && index + 1 < end) {
+            byte next = buffer.get(index + 1);
+
+            if(next == '?') {
+                int declarationEnd = TcxBytes.indexOf(buffer, (byte) '>', index, end);
+
+                if(isRoot) {
+                    layout.encoding = TcxBytes.encodingOf(buffer, index, declarationEnd < 0 ? end : declarationEnd);
+                }
+
+                index = declarationEnd < 0 ? end : declarationEnd + 1;
+                continue;
+            }
+
+            if(next == '!') {
+                index = TcxBytes.skipMarkup(buffer, index, end);
+
+                if(index < 0) {
+                    break;
+                }
+                continue;
+            }
+
+            boolean isEndTag = next == '/';
+            int nameStart = isEndTag ? index + 2 : index + 1;
+            int nameEnd = nameStart;
+            int localStart = nameStart;
+
+            while(nameEnd < end && TcxBytes.isNameChar(buffer.get(nameEnd))) {
+                if(buffer.get(nameEnd) == ':') {
+                    localStart = nameEnd + 1;
+                }
+                nameEnd++;
+            }
+
+            int tagEnd = TcxBytes.indexOf(buffer, (byte) '>', nameEnd, end);
+
+            if(tagEnd < 0) {
+                break;
+            }
+
+            boolean isEmptyTag = buffer.get(tagEnd - 1) == '/';
+
+            if(isRoot && !isEndTag) {
+                layout.fragmentStart = TcxBytes.fragmentStart(buffer, nameEnd, tagEnd);
+                isRoot = false;
+            } else if(TcxBytes.isName(buffer, localStart, nameEnd, TcxBytes.COURSES)) {
+                if(isEndTag) {
+                    coursesDepth--;
+                } else if(!isEmptyTag) {
+                    coursesDepth++;
+                }
+            } else if(coursesDepth == 0 && TcxBytes.isName(buffer, localStart, nameEnd, TcxBytes.TRACK)) {
+                if(!isEndTag && !isEmptyTag) {
+                    chunkStart = tagEnd + 1;
+                } else if(isEndTag && chunkStart >= 0) {
+                    layout.chunks.add(new int[] {chunkStart, index});
+                    chunkStart = -1;
+                }
+            } else if(chunkStart >= 0 && !isEndTag && index - chunkStart >= chunkBytes && TcxBytes.isName(buffer, localStart, nameEnd, TcxBytes.TRACKPOINT)) {
+                layout.chunks.add(new int[] {chunkStart, index});
+                chunkStart = index;
+            }
+
+            index = tagEnd + 1;
+        }
+
+        return layout;
+    }
+
+    private static ByteBuffer inflate(final InputStream inputStream) {
+        try(InputStream source = inputStream; ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            byte[] bytes = new byte[64 * 1024];
+            int count;
+
+            while((count = source.read(bytes)) >= 0) {
+                outputStream.write(bytes, 0, count);
+            }
+
+            return ByteBuffer.wrap(outputStream.toByteArray());
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error reading input\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+}
@@ -8,66 +8,281 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Objects;
 
 public class TcxReader {
-    private JAXBContext jaxbContext;
-    private Unmarshaller unmarshaller;
+    private static final String CONTEXT_PATH = "com.garmin.xmlschemas.trainingcenterdatabase.v2:com.garmin.xmlschemas.activityextension.v2";
+    private static volatile JAXBContext sharedJaxbContext;
+
+    /**
+     * How documents are bound into TrainingCenterDatabaseT. BINDER skips building the JAXBContext, which dominates
+     * cold starts, until a document has Folders, Workouts, Courses or Training, which it still hands to JAXB.
+     */
+    public enum Backend {
+        JAXB,
+        BINDER
+    }
+
+    /**
+     * How much of the TCX schema documents are checked against. STRUCTURAL validates everything but the key, keyref
+     * and unique identity constraints, and checks all of them with hash sets after binding instead, see
+     * TcxIdentityCheck.
+     */
+    public enum Validation {
+        NONE,
+        STRUCTURAL,
+        FULL
+    }
+
+    private ThreadLocal<Unmarshaller> unmarshaller;
+    private ThreadLocal<Unmarshaller> binderUnmarshaller;
+    private ThreadLocal<TcxBinder> binder;
+    private XMLInputFactory xmlInputFactory;
+    private DatatypeFactory datatypeFactory;
     public final boolean isValidating;
+    public final Validation validation;
+    public final Backend backend;
 
     public TcxReader() {
         this(false);
     }
 
+    /**
+     * Readers are thread-safe. The JAXBContext is built once per JVM and shared by every reader, while each thread
+     * calling read lazily gets its own Unmarshaller.
+     */
     public TcxReader(final boolean isValidating){
-        this.isValidating = isValidating;
+        this(isValidating, Backend.JAXB);
+    }
+
+    public TcxReader(final boolean isValidating, final Backend backend) {
+        this(isValidating ? Validation.FULL : Validation.NONE, backend);
+    }
+
+    /**
+     * The BINDER backend validates in the same pass that binds the document, JAXB lets its Unmarshaller validate.
+     */
+    public TcxReader(final Validation validation, final Backend backend) {
+        if(Objects.isNull(validation)) {
+            throw new TcxReaderException("Error: validation can not be null.");
+        }
+
+        if(Objects.isNull(backend)) {
+            throw new TcxReaderException("Error: backend can not be null.");
+        }
+
+        this.isValidating = validation != Validation.NONE;
+        this.validation = validation;
+        this.backend = backend;
         init();
     }
 
     private void init() {
+        this.unmarshaller = ThreadLocal.withInitial(() -> createUnmarshaller(this.backend == Backend.JAXB));
+
+        // The binder validates in its own pass, so the subtrees it hands to JAXB must not be checked against the schema.
+        this.binderUnmarshaller = this.backend == Backend.BINDER ? this.unmarshaller : ThreadLocal.withInitial(() -> createUnmarshaller(false));
+
+        if(this.backend == Backend.JAXB) {
+            getSharedJaxbContext();
+        }
+
+        // The binder also backs recover, whatever the backend.
         try {
-            this.jaxbContext = JAXBContext.newInstance("com.garmin.xmlschemas.trainingcenterdatabase.v2");
-            this.unmarshaller = Objects.nonNull(this.jaxbContext) ? this.jaxbContext.createUnmarshaller() : null;
+            this.xmlInputFactory = XMLInputFactory.newInstance();
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.datatypeFactory = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new TcxReaderException(String.format("Error initializing reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
 
-            if(Objects.isNull(this.jaxbContext)) {
-                throw new TcxReaderException("Error: JAXBContext is null.");
+        this.binder = ThreadLocal.withInitial(() -> new TcxBinder(this.datatypeFactory, this.binderUnmarshaller::get));
+    }
+
+    private static JAXBContext getSharedJaxbContext() {
+        JAXBContext jaxbContext = sharedJaxbContext;
+
+        if(Objects.isNull(jaxbContext)) {
+            synchronized(TcxReader.class) {
+                jaxbContext = sharedJaxbContext;
+
+                if(Objects.isNull(jaxbContext)) {
+                    try {
+                        jaxbContext = JAXBContext.newInstance(CONTEXT_PATH);
+                        sharedJaxbContext = jaxbContext;
+                    } catch (JAXBException e) {
+                        throw new TcxReaderException(String.format("Error initializing reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+                    }
+                }
             }
+        }
 
-            if(Objects.isNull(this.unmarshaller)) {
+        return jaxbContext;
+    }
+
+    private Unmarshaller createUnmarshaller(final boolean hasSchema) {
+        try {
+            Unmarshaller unmarshaller = getSharedJaxbContext().createUnmarshaller();
+
+            if(Objects.isNull(unmarshaller)) {
                 throw new TcxReaderException("Error: Unmarshaller is null.");
             }
 
-            if(this.isValidating) {
-                this.unmarshaller.setSchema(TcxSchema.getSchema());
+            if(this.isValidating && hasSchema) {
+                unmarshaller.setSchema(this.validation == Validation.FULL ? TcxSchema.getSchema() : TcxSchema.getStructuralSchema());
             }
 
+            return unmarshaller;
         } catch (JAXBException e) {
             throw new TcxReaderException(String.format("Error initializing reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
         }
     }
 
+    /**
+     * Gzipped files are inflated transparently, see TcxInput.
+     */
     public TrainingCenterDatabaseT read(final Path path) {
         if(Objects.isNull(path)) {
             throw new TcxReaderException("Error: path can not be null.");
         }
 
-        if(Objects.isNull(this.jaxbContext)) {
-            throw new TcxReaderException("Error: JAXBContext is null.");
+        return unmarshal(TcxInput.open(path));
+    }
+
+    public TrainingCenterDatabaseT read(final ReadableByteChannel channel) {
+        return unmarshal(TcxInput.open(channel));
+    }
+
+    public TrainingCenterDatabaseT read(final byte[] bytes) {
+        return unmarshal(TcxInput.open(bytes));
+    }
+
+    public TrainingCenterDatabaseT read(final ByteBuffer buffer) {
+        return unmarshal(TcxInput.open(buffer));
+    }
+
+    /**
+     * Reads a plain, gzipped or zipped TCX document. The stream is closed once it has been read.
+     */
+    public TrainingCenterDatabaseT read(final InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            throw new TcxReaderException("Error: inputStream can not be null.");
         }
 
-        if(Objects.isNull(this.unmarshaller)) {
-            throw new TcxReaderException("Error: Unmarshaller is null.");
+        return unmarshal(TcxInput.open(inputStream));
+    }
+
+    private TrainingCenterDatabaseT unmarshal(final InputStream inputStream) {
+        if(this.backend == Backend.BINDER) {
+            return bind(inputStream);
         }
 
-        try {
-            return (TrainingCenterDatabaseT) ((JAXBElement)this.unmarshaller.unmarshal(path.toFile())).getValue();
-        } catch (JAXBException | ClassCastException e) {
+        try(InputStream source = inputStream) {
+            TrainingCenterDatabaseT trainingCenterDatabaseT = (TrainingCenterDatabaseT) ((JAXBElement)this.unmarshaller.get().unmarshal(source)).getValue();
+
+            if(this.validation == Validation.STRUCTURAL) {
+                TcxIdentityCheck.check(trainingCenterDatabaseT);
+            }
+
+            return trainingCenterDatabaseT;
+        } catch (JAXBException | ClassCastException | IOException e) {
             throw new TcxReaderException(String.format("Error parsing XML file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
         }
     }
 
+    private TrainingCenterDatabaseT bind(final InputStream inputStream) {
+        try(InputStream source = inputStream) {
+            XMLStreamReader xmlStreamReader = this.xmlInputFactory.createXMLStreamReader(source);
+
+            if(this.isValidating) {
+                xmlStreamReader = new ValidatingStreamReader(xmlStreamReader, this.validation == Validation.FULL ? TcxSchema.newValidatorHandler() : TcxSchema.newStructuralValidatorHandler());
+            }
+
+            try {
+                TrainingCenterDatabaseT trainingCenterDatabaseT = this.binder.get().bind(xmlStreamReader);
+
+                if(this.isValidating) {
+                    // Pulls the end of the document through the validator.
+                    while(xmlStreamReader.hasNext()) {
+                        xmlStreamReader.next();
+                    }
+                }
+
+                if(this.validation == Validation.STRUCTURAL) {
+                    TcxIdentityCheck.check(trainingCenterDatabaseT);
+                }
+
+                return trainingCenterDatabaseT;
+            } finally {
+                xmlStreamReader.close();
+            }
+        } catch (XMLStreamException | IllegalArgumentException | IOException e) {
+            throw new TcxReaderException(String.format("Error parsing XML file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Reads as much of a truncated or malformed document as possible instead of throwing, in the same single
+     * streaming pass as the BINDER backend and whatever backend this reader uses. The result holds everything up to
+     * the last complete Trackpoint and says where reading stopped. Schema validation is not applied.
+     */
+    public TcxRecovery recover(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        return recoverFrom(TcxInput.open(path));
+    }
+
+    /**
+     * The stream is closed once it has been read.
+     */
+    public TcxRecovery recover(final InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            throw new TcxReaderException("Error: inputStream can not be null.");
+        }
+
+        return recoverFrom(TcxInput.open(inputStream));
+    }
+
+    private TcxRecovery recoverFrom(final InputStream source) {
+        XMLStreamReader xmlStreamReader;
+
+        try {
+            xmlStreamReader = this.xmlInputFactory.createXMLStreamReader(source);
+        } catch (XMLStreamException e) {
+            // Even the XML declaration is broken, so there is nothing to recover.
+            TcxInput.closeQuietly(source);
+            return new TcxRecovery(new TrainingCenterDatabaseT(), e.getMessage(), e.getLocation(), Collections.emptyList());
+        }
+
+        try {
+            return this.binder.get().recover(xmlStreamReader);
+        } finally {
+            try {
+                xmlStreamReader.close();
+            } catch (XMLStreamException e) {
+                // The stream is already broken when recovering, closing the source below is what matters.
+            }
+
+            TcxInput.closeQuietly(source);
+        }
+    }
+
     public static void main(String[] args) {
         Path testTcx = Paths.get("/", "home", "anthony", "Downloads", "6294058868.tcx");
 
@@ -0,0 +1,158 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityLapT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ActivityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.MultiSportSessionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.NextSportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrainingCenterDatabaseT;
+
+import javax.xml.stream.Location;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What TcxReader.recover salvaged from a document, and where and why reading it stopped.
+ *
+ * The TrainingCenterDatabaseT holds everything up to the last complete Trackpoint. The Activity and Lap that were open
+ * when reading stopped are kept with what had been read of them, so their totals may be missing.
+ */
+public class TcxRecovery {
+    private final TrainingCenterDatabaseT trainingCenterDatabase;
+    private final String message;
+    private final int lineNumber;
+    private final int columnNumber;
+    private final int characterOffset;
+    private final List<String> openElements;
+    private int activityCount;
+    private int lapCount;
+    private int trackpointCount;
+
+    TcxRecovery(final TrainingCenterDatabaseT trainingCenterDatabase, final String message, final Location location, final List<String> openElements) {
+        this.trainingCenterDatabase = trainingCenterDatabase;
+        this.message = message;
+        this.lineNumber = Objects.isNull(location) ? -1 : location.getLineNumber();
+        this.columnNumber = Objects.isNull(location) ? -1 : location.getColumnNumber();
+        this.characterOffset = Objects.isNull(location) ? -1 : location.getCharacterOffset();
+        this.openElements = Collections.unmodifiableList(openElements);
+        count();
+    }
+
+    private void count() {
+        if(Objects.isNull(this.trainingCenterDatabase.getActivities())) {
+            return;
+        }
+
+        for(ActivityT activityT : this.trainingCenterDatabase.getActivities().getActivity()) {
+            count(activityT);
+        }
+
+        for(MultiSportSessionT multiSportSessionT : this.trainingCenterDatabase.getActivities().getMultiSportSession()) {
+            if(Objects.nonNull(multiSportSessionT.getFirstSport())) {
+                count(multiSportSessionT.getFirstSport().getActivity());
+            }
+
+            for(NextSportT nextSportT : multiSportSessionT.getNextSport()) {
+                count(nextSportT.getTransition());
+                count(nextSportT.getActivity());
+            }
+        }
+    }
+
+    private void count(final ActivityT activityT) {
+        if(Objects.isNull(activityT)) {
+            return;
+        }
+
+        this.activityCount++;
+
+        for(ActivityLapT activityLapT : activityT.getLap()) {
+            count(activityLapT);
+        }
+    }
+
+    private void count(final ActivityLapT activityLapT) {
+        if(Objects.isNull(activityLapT)) {
+            return;
+        }
+
+        this.lapCount++;
+
+        for(TrackT trackT : activityLapT.getTrack()) {
+            this.trackpointCount += trackT.getTrackpoint().size();
+        }
+    }
+
+    public final TrainingCenterDatabaseT getTrainingCenterDatabase() {
+        return this.trainingCenterDatabase;
+    }
+
+    /**
+     * True when the whole document was read and nothing was cut off.
+     */
+    public final boolean isComplete() {
+        return Objects.isNull(this.message);
+    }
+
+    /**
+     * Why reading stopped, or null when the document is complete.
+     */
+    public final String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * The line reading stopped at, or -1 when the document is complete or the position is unknown. The same goes for
+     * the column and character offset.
+     */
+    public final int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    public final int getColumnNumber() {
+        return this.columnNumber;
+    }
+
+    public final int getCharacterOffset() {
+        return this.characterOffset;
+    }
+
+    /**
+     * The local names of the elements that were open when reading stopped, outermost first, e.g.
+     * [TrainingCenterDatabase, Activities, Activity, Lap, Track, Trackpoint].
+     */
+    public final List<String> getOpenElements() {
+        return this.openElements;
+    }
+
+    /**
+     * Recovered Activities, including multi-sport legs and the one that was cut off.
+     */
+    public final int getActivityCount() {
+        return this.activityCount;
+    }
+
+    /**
+     * Recovered Laps, including multi-sport transitions and the one that was cut off.
+     */
+    public final int getLapCount() {
+        return this.lapCount;
+    }
+
+    public final int getTrackpointCount() {
+        return this.trackpointCount;
+    }
+
+    @Override
+    public String toString() {
+        if(isComplete()) {
+            return String.format("complete: %d activities, %d laps, %d trackpoints", this.activityCount, this.lapCount, this.trackpointCount);
+        }
+
+        return String.format("cut off at line %d, column %d%s: %s\nRecovered %d activities, %d laps, %d trackpoints",
+                             this.lineNumber, this.columnNumber,
+                             this.openElements.isEmpty() ? "" : " in " + String.join("/", this.openElements), this.message,
+                             this.activityCount, this.lapCount, this.trackpointCount);
+    }
+}
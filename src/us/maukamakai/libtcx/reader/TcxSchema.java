@@ -6,12 +6,21 @@ import javax.xml.XMLConstants;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
 import java.io.IOException;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Objects;
+import java.util.regex.Pattern;
 
 public class TcxSchema {
+    private static volatile Schema compiledSchema;
+    private static volatile Schema compiledStructuralSchema;
+
+    private static final Pattern IDENTITY_CONSTRAINT = Pattern.compile("[ \\t]*<xsd:(key|keyref|unique)\\b.*?</xsd:\\1>\\n", Pattern.DOTALL);
+
     // http://www8.garmin.com/xmlschemas/TrainingCenterDatabasev2.xsd
     private static final String TCX_SCHEMA = "<?xml version=\"1.0\"?>\n" +
             "<xsd:schema xmlns=\"http://www.garmin.com/xmlschemas/TrainingCenterDatabase/v2\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\"\n" +
@@ -847,14 +856,73 @@ public class TcxSchema {
         return TCX_SCHEMA;
     }
 
+    /**
+     * The compiled Schema is immutable and thread-safe, so it is built on first use and shared from then on.
+     */
     public static Schema getSchema() {
+        Schema schema = compiledSchema;
+
+        if(Objects.isNull(schema)) {
+            synchronized(TcxSchema.class) {
+                schema = compiledSchema;
+
+                if(Objects.isNull(schema)) {
+                    schema = compileSchema();
+                    compiledSchema = schema;
+                }
+            }
+        }
+
+        return schema;
+    }
+
+    /**
+     * Validators are not thread-safe, each caller gets a fresh one backed by the shared Schema.
+     */
+    public static Validator newValidator() {
+        return getSchema().newValidator();
+    }
+
+    public static ValidatorHandler newValidatorHandler() {
+        return getSchema().newValidatorHandler();
+    }
+
+    /**
+     * The TCX schema without its key, keyref and unique identity constraints. Checking those makes the validator track
+     * selector matches across the whole document, which costs about as much as the rest of validation on large files.
+     */
+    public static Schema getStructuralSchema() {
+        Schema schema = compiledStructuralSchema;
+
+        if(Objects.isNull(schema)) {
+            synchronized(TcxSchema.class) {
+                schema = compiledStructuralSchema;
+
+                if(Objects.isNull(schema)) {
+                    schema = compileSchema(IDENTITY_CONSTRAINT.matcher(TCX_SCHEMA).replaceAll(""));
+                    compiledStructuralSchema = schema;
+                }
+            }
+        }
+
+        return schema;
+    }
+
+    public static ValidatorHandler newStructuralValidatorHandler() {
+        return getStructuralSchema().newValidatorHandler();
+    }
+
+    private static Schema compileSchema() {
+        return compileSchema(TCX_SCHEMA);
+    }
+
+    private static Schema compileSchema(final String schemaStr) {
         SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        StreamSource source = new StreamSource(new StringReader(TCX_SCHEMA));
+        StreamSource source = new StreamSource(new StringReader(schemaStr));
         try {
             return schemaFactory.newSchema(source);
         } catch (SAXException e) {
-            e.printStackTrace();
+            throw new TcxReaderException(String.format("Error compiling TCX schema\nMessage: %s", e.getMessage()), e.fillInStackTrace());
         }
-        return null;
     }
 }
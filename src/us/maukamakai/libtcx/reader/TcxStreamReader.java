@@ -0,0 +1,166 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import us.maukamakai.libtcx.computed.SpeedFilter;
+import us.maukamakai.libtcx.computed.TrackAccumulator;
+import us.maukamakai.libtcx.computed.TrackAccumulators;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams activity Trackpoints out of a TCX file without unmarshalling the TrainingCenterDatabaseT graph.
+ *
+ * Only one TrackpointT is alive at a time, so heap use does not grow with the size of the file.
+ */
+public class TcxStreamReader {
+    private XMLInputFactory xmlInputFactory;
+    private DatatypeFactory datatypeFactory;
+    public final Set<TrackpointChannel> channels;
+
+    public TcxStreamReader() {
+        this(EnumSet.allOf(TrackpointChannel.class));
+    }
+
+    /**
+     * Only the requested channels are decoded, e.g. EnumSet.of(TIME, HEART_RATE) for zone reports. Computed tracks
+     * need TIME, Trackpoints without it are skipped.
+     */
+    public TcxStreamReader(final Set<TrackpointChannel> channels) {
+        if(Objects.isNull(channels)) {
+            throw new TcxReaderException("Error: channels can not be null.");
+        }
+
+        this.channels = Collections.unmodifiableSet(channels.isEmpty() ? EnumSet.noneOf(TrackpointChannel.class) : EnumSet.copyOf(channels));
+        init();
+    }
+
+    private void init() {
+        try {
+            this.xmlInputFactory = XMLInputFactory.newInstance();
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.datatypeFactory = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new TcxReaderException(String.format("Error initializing stream reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    public void read(final Path path, final Consumer<TrackpointT> consumer) {
+        read(path, TrackpointFilter.ALL, consumer);
+    }
+
+    public void read(final Path path, final TrackpointFilter filter, final Consumer<TrackpointT> consumer) {
+        if(Objects.isNull(consumer)) {
+            throw new TcxReaderException("Error: consumer can not be null.");
+        }
+
+        read(iterator(path, filter), consumer);
+    }
+
+    /**
+     * Reads a plain, gzipped or zipped TCX document, see TcxInput. The stream is closed once it has been read.
+     */
+    public void read(final InputStream inputStream, final Consumer<TrackpointT> consumer) {
+        read(inputStream, TrackpointFilter.ALL, consumer);
+    }
+
+    public void read(final InputStream inputStream, final TrackpointFilter filter, final Consumer<TrackpointT> consumer) {
+        if(Objects.isNull(consumer)) {
+            throw new TcxReaderException("Error: consumer can not be null.");
+        }
+
+        read(iterator(inputStream, filter), consumer);
+    }
+
+    /**
+     * Streams the Trackpoints through the accumulators, which hold their results once this returns. No points are
+     * kept, see TrackAccumulators.
+     */
+    public void accumulate(final Path path, final TrackAccumulator... accumulators) {
+        read(path, new TrackAccumulators(accumulators));
+    }
+
+    public void accumulate(final InputStream inputStream, final TrackAccumulator... accumulators) {
+        read(inputStream, new TrackAccumulators(accumulators));
+    }
+
+    /**
+     * Like accumulate, with the derived speeds smoothed or gated by speedFilter, see SpeedFilter.
+     */
+    public void accumulate(final Path path, final SpeedFilter speedFilter, final TrackAccumulator... accumulators) {
+        read(path, new TrackAccumulators(speedFilter, accumulators));
+    }
+
+    public void accumulate(final InputStream inputStream, final SpeedFilter speedFilter, final TrackAccumulator... accumulators) {
+        read(inputStream, new TrackAccumulators(speedFilter, accumulators));
+    }
+
+    private static void read(final TrackpointIterator trackpointIterator, final Consumer<TrackpointT> consumer) {
+        try(TrackpointIterator iterator = trackpointIterator) {
+            while(iterator.hasNext()) {
+                consumer.accept(iterator.next());
+            }
+        }
+    }
+
+    /**
+     * The returned iterator holds the file open until it is exhausted or closed.
+     */
+    public TrackpointIterator iterator(final Path path) {
+        return iterator(path, TrackpointFilter.ALL);
+    }
+
+    /**
+     * Only Trackpoints accepted by filter are returned, points outside its time window are dropped before they are
+     * built and the rest of a Track is skipped once the window is passed.
+     */
+    public TrackpointIterator iterator(final Path path, final TrackpointFilter filter) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        if(Objects.isNull(filter)) {
+            throw new TcxReaderException("Error: filter can not be null.");
+        }
+
+        return openIterator(TcxInput.open(path), filter);
+    }
+
+    public TrackpointIterator iterator(final InputStream inputStream) {
+        return iterator(inputStream, TrackpointFilter.ALL);
+    }
+
+    public TrackpointIterator iterator(final InputStream inputStream, final TrackpointFilter filter) {
+        if(Objects.isNull(inputStream)) {
+            throw new TcxReaderException("Error: inputStream can not be null.");
+        }
+
+        if(Objects.isNull(filter)) {
+            throw new TcxReaderException("Error: filter can not be null.");
+        }
+
+        return openIterator(TcxInput.open(inputStream), filter);
+    }
+
+    private TrackpointIterator openIterator(final InputStream source, final TrackpointFilter filter) {
+        try {
+            XMLStreamReader xmlStreamReader = this.xmlInputFactory.createXMLStreamReader(source);
+            return new TrackpointIterator(xmlStreamReader, source, new TrackpointParser(this.datatypeFactory, this.channels), filter);
+        } catch (XMLStreamException e) {
+            TcxInput.closeQuietly(source);
+            throw new TcxReaderException(String.format("Error opening XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.IntensityT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SportT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TriggerMethodT;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads just the Id, Sport and lap totals of every activity in a TCX file, for listings and archive indexes.
+ *
+ * Track elements are cut out of the byte stream before it reaches the XML parser, so Trackpoints are never
+ * tokenized. Combine with TcxBatchReader.read(dir, summaryReader::read) to index a whole directory.
+ */
+public class TcxSummaryReader {
+    private final XMLInputFactory xmlInputFactory;
+
+    public TcxSummaryReader() {
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public List<ActivitySummary> read(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        return summarize(TcxInput.open(path));
+    }
+
+    /**
+     * Reads a plain, gzipped or zipped TCX document, see TcxInput. The stream is closed once it has been read.
+     */
+    public List<ActivitySummary> read(final InputStream inputStream) {
+        if(Objects.isNull(inputStream)) {
+            throw new TcxReaderException("Error: inputStream can not be null.");
+        }
+
+        return summarize(TcxInput.open(inputStream));
+    }
+
+    private List<ActivitySummary> summarize(final InputStream source) {
+        List<ActivitySummary> activities = new ArrayList<>();
+
+        try(InputStream inputStream = new TrackStrippingInputStream(source)) {
+            XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(inputStream);
+
+            if(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    if("Activities".equals(reader.getLocalName())) {
+                        readActivities(reader, activities);
+                    } else {
+                        TrackpointParser.skipElement(reader);
+                    }
+                }
+            }
+
+            reader.close();
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new TcxReaderException(String.format("Error parsing XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error reading input\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        return activities;
+    }
+
+    private static void readActivities(final XMLStreamReader reader, final List<ActivitySummary> activities) throws XMLStreamException {
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Activity":
+                    activities.add(readActivity(reader));
+                    break;
+                case "MultiSportSession":
+                    readMultiSportSession(reader, activities);
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+    }
+
+    private static void readMultiSportSession(final XMLStreamReader reader, final List<ActivitySummary> activities) throws XMLStreamException {
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if(!"FirstSport".equals(reader.getLocalName()) && !"NextSport".equals(reader.getLocalName())) {
+                TrackpointParser.skipElement(reader);
+                continue;
+            }
+
+            while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if("Activity".equals(reader.getLocalName())) {
+                    activities.add(readActivity(reader));
+                } else {
+                    TrackpointParser.skipElement(reader);
+                }
+            }
+        }
+    }
+
+    private static ActivitySummary readActivity(final XMLStreamReader reader) throws XMLStreamException {
+        ActivitySummary activity = new ActivitySummary();
+        String sport = reader.getAttributeValue(null, "Sport");
+        activity.sport = Objects.isNull(sport) ? null : SportT.fromValue(sport.trim());
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Id":
+                    activity.id = TcxDateTime.parseZonedDateTime(reader.getElementText());
+                    break;
+                case "Lap":
+                    activity.laps.add(readLap(reader));
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return activity;
+    }
+
+    private static LapSummary readLap(final XMLStreamReader reader) throws XMLStreamException {
+        LapSummary lap = new LapSummary();
+        String startTime = reader.getAttributeValue(null, "StartTime");
+        lap.startTime = Objects.isNull(startTime) ? null : TcxDateTime.parseZonedDateTime(startTime);
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "TotalTimeSeconds":
+                    lap.totalTimeSeconds = Double.parseDouble(reader.getElementText());
+                    break;
+                case "DistanceMeters":
+                    lap.distanceMeters = Double.parseDouble(reader.getElementText());
+                    break;
+                case "MaximumSpeed":
+                    lap.maximumSpeed = Double.parseDouble(reader.getElementText());
+                    break;
+                case "Calories":
+                    lap.calories = Integer.parseInt(reader.getElementText().trim());
+                    break;
+                case "AverageHeartRateBpm":
+                    lap.averageHeartRateBpm = readHeartRate(reader);
+                    break;
+                case "MaximumHeartRateBpm":
+                    lap.maximumHeartRateBpm = readHeartRate(reader);
+                    break;
+                case "Intensity":
+                    lap.intensity = IntensityT.fromValue(reader.getElementText().trim());
+                    break;
+                case "TriggerMethod":
+                    lap.triggerMethod = TriggerMethodT.fromValue(reader.getElementText().trim());
+                    break;
+                default:
+                    TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return lap;
+    }
+
+    private static int readHeartRate(final XMLStreamReader reader) throws XMLStreamException {
+        int value = 0;
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if("Value".equals(reader.getLocalName())) {
+                value = Integer.parseInt(reader.getElementText().trim());
+            } else {
+                TrackpointParser.skipElement(reader);
+            }
+        }
+
+        return value;
+    }
+}
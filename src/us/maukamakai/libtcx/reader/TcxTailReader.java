@@ -0,0 +1,228 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import us.maukamakai.libtcx.computed.ColumnarTrack;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Follows a TCX file that a recorder is still writing. Each poll reads only the bytes appended since the previous one
+ * and emits the Trackpoints completed in them, so a whole session costs O(n) rather than a full re-parse per poll.
+ *
+ * The document does not need to be terminated. A Trackpoint that is still being written is left for the next poll,
+ * and the byte offset after the last complete Trackpoint is all the state kept between polls. Every emitted point is
+ * also appended to a ColumnarTrack.Builder, which derives its speed from the previous point as it arrives.
+ *
+ * The file must be UTF-8 or another ASCII compatible encoding and is expected to only grow. Instances are not
+ * thread-safe.
+ */
+public class TcxTailReader {
+    private final Path path;
+    private final ColumnarTrack.Builder builder;
+    private XMLInputFactory xmlInputFactory;
+    private TrackpointParser trackpointParser;
+    private byte[] fragmentStart;
+    private String encoding;
+    private long offset;
+
+    public TcxTailReader(final Path path) {
+        if(Objects.isNull(path)) {
+            throw new TcxReaderException("Error: path can not be null.");
+        }
+
+        this.path = path;
+        this.builder = new ColumnarTrack.Builder();
+        this.encoding = StandardCharsets.UTF_8.name();
+        this.offset = 0;
+        init();
+    }
+
+    private void init() {
+        try {
+            this.xmlInputFactory = XMLInputFactory.newInstance();
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.trackpointParser = new TrackpointParser(DatatypeFactory.newInstance());
+        } catch (DatatypeConfigurationException e) {
+            throw new TcxReaderException(String.format("Error initializing tail reader\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+
+    /**
+     * Hands every Trackpoint completed since the last poll to consumer and returns how many there were.
+     */
+    public int poll(final Consumer<TrackpointT> consumer) {
+        if(Objects.isNull(consumer)) {
+            throw new TcxReaderException("Error: consumer can not be null.");
+        }
+
+        ByteBuffer buffer;
+
+        try(FileChannel fileChannel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+
+            if(size < this.offset) {
+                throw new TcxReaderException(String.format("Error: %s shrank from %d to %d bytes.", this.path, this.offset, size));
+            }
+
+            if(size == this.offset) {
+                return 0;
+            }
+
+            buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, this.offset, size - this.offset);
+        } catch (IOException e) {
+            throw new TcxReaderException(String.format("Error reading file\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        List<int[]> trackpoints = new ArrayList<>();
+        int consumed = scan(buffer, trackpoints);
+
+        if(trackpoints.isEmpty()) {
+            this.offset += consumed;
+            return 0;
+        }
+
+        int count = parse(buffer, trackpoints, consumer);
+        this.offset += consumed;
+        return count;
+    }
+
+    /**
+     * Collects the [start, end) spans of complete Trackpoint elements and returns how many bytes can be consumed.
+     */
+    private int scan(final ByteBuffer buffer, final List<int[]> trackpoints) {
+        int end = buffer.limit();
+        int index = 0;
+        int consumed = 0;
+        int trackpointStart = -1;
+
+        while((index = TcxBytes.indexOf(buffer, (byte) '<', index, end)) >= 0 && index + 1 < end) {
+            byte next = buffer.get(index + 1);
+
+            if(next == '?' || next == '!') {
+                int markupEnd = next == '?' ? TcxBytes.indexOf(buffer, (byte) '>', index, end) : TcxBytes.skipMarkup(buffer, index, end);
+
+                if(markupEnd < 0) {
+                    break;
+                }
+
+                if(next == '?' && Objects.isNull(this.fragmentStart)) {
+                    this.encoding = TcxBytes.encodingOf(buffer, index, markupEnd);
+                }
+
+                index = next == '?' ? markupEnd + 1 : markupEnd;
+                continue;
+            }
+
+            boolean isEndTag = next == '/';
+            int nameStart = isEndTag ? index + 2 : index + 1;
+            int nameEnd = nameStart;
+            int localStart = nameStart;
+
+            while(nameEnd < end && TcxBytes.isNameChar(buffer.get(nameEnd))) {
+                if(buffer.get(nameEnd) == ':') {
+                    localStart = nameEnd + 1;
+                }
+                nameEnd++;
+            }
+
+            int tagEnd = TcxBytes.indexOf(buffer, (byte) '>', nameEnd, end);
+
+            if(tagEnd < 0) {
+                break;
+            }
+
+            if(Objects.isNull(this.fragmentStart)) {
+                if(!isEndTag) {
+                    this.fragmentStart = TcxBytes.fragmentStart(buffer, nameEnd, tagEnd);
+                    consumed = tagEnd + 1;
+                }
+            } else if(TcxBytes.isName(buffer, localStart, nameEnd, TcxBytes.TRACKPOINT)) {
+                if(!isEndTag) {
+                    trackpointStart = index;
+                } else if(trackpointStart >= 0) {
+                    trackpoints.add(new int[] {trackpointStart, tagEnd + 1});
+                    trackpointStart = -1;
+                    consumed = tagEnd + 1;
+                }
+            }
+
+            index = tagEnd + 1;
+        }
+
+        return consumed;
+    }
+
+    private int parse(final ByteBuffer buffer, final List<int[]> trackpoints, final Consumer<TrackpointT> consumer) {
+        List<InputStream> parts = new ArrayList<>(trackpoints.size() + 2);
+        parts.add(new ByteArrayInputStream(this.fragmentStart));
+
+        for(int[] trackpoint : trackpoints) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(trackpoint[1]).position(trackpoint[0]);
+            parts.add(new TcxInput.ByteBufferInputStream(slice));
+        }
+
+        parts.add(new ByteArrayInputStream(TcxBytes.FRAGMENT_END));
+
+        List<TrackpointT> trackpointTs = new ArrayList<>(trackpoints.size());
+
+        try {
+            XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(new SequenceInputStream(Collections.enumeration(parts)), this.encoding);
+            reader.nextTag();
+
+            while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                trackpointTs.add(this.trackpointParser.parse(reader));
+            }
+
+            reader.close();
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new TcxReaderException(String.format("Error parsing XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        // Nothing is emitted until the whole batch parsed, so a failed poll can simply be retried.
+        for(TrackpointT trackpointT : trackpointTs) {
+            this.builder.add(trackpointT);
+            consumer.accept(trackpointT);
+        }
+
+        return trackpointTs.size();
+    }
+
+    /**
+     * The byte offset the next poll starts reading from.
+     */
+    public final long getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * A snapshot of every point emitted so far. Taking one copies every column into a track of exactly that size,
+     * unless the builder's arrays happen to be full, in which case they are handed over and the next poll that adds a
+     * point copies them instead. Either way it costs a copy, so call it when the track is needed rather than after
+     * every poll.
+     */
+    public ColumnarTrack getTrack() {
+        return this.builder.build();
+    }
+}
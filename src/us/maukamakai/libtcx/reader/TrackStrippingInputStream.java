@@ -0,0 +1,291 @@
+package us.maukamakai.libtcx.reader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Drops every Track element, start tag to end tag, from a UTF-8 or ASCII encoded TCX document at the byte level, so
+ * the XML parser never sees the Trackpoints. Scanning bytes for the next '<' is far cheaper than tokenizing them.
+ *
+ * Comments, CDATA sections and processing instructions are passed through, or dropped inside a Track, without looking
+ * for tags in them, the same way TcxBytes.skipMarkup steps over them for TcxTailReader.
+ *
+ * UTF-16 documents, recognized by their first two bytes, are passed through unchanged.
+ */
+class TrackStrippingInputStream extends FilterInputStream {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOOKAHEAD = 128;
+    private static final byte[] TRACK = {'T', 'r', 'a', 'c', 'k'};
+    private static final byte[] COMMENT = {'<', '!', '-', '-'};
+    private static final byte[] COMMENT_END = {'-', '-', '>'};
+    private static final byte[] CDATA = {'<', '!', '[', 'C', 'D', 'A', 'T', 'A', '['};
+    private static final byte[] CDATA_END = {']', ']', '>'};
+    private static final byte[] PROCESSING_INSTRUCTION = {'<', '?'};
+    private static final byte[] PROCESSING_INSTRUCTION_END = {'?', '>'};
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean isEof;
+    private boolean isSkipping;
+    private boolean isPassThrough;
+    private boolean isStarted;
+    private byte[] markupEnd;
+
+    TrackStrippingInputStream(final InputStream inputStream) {
+        super(inputStream);
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int count = read(single, 0, 1);
+        return count < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if(length == 0) {
+            return 0;
+        }
+
+        while(true) {
+            fill();
+
+            if(this.position == this.limit) {
+                return -1;
+            }
+
+            if(this.isPassThrough) {
+                int count = Math.min(length, this.limit - this.position);
+                System.arraycopy(this.buffer, this.position, bytes, offset, count);
+                this.position += count;
+                return count;
+            }
+
+            if(this.isSkipping) {
+                skipToEndTag();
+                continue;
+            }
+
+            int count = 0;
+
+            while(count < length && this.position < this.limit) {
+                byte b = this.buffer[this.position];
+
+                if(Objects.nonNull(this.markupEnd)) {
+                    if(b == this.markupEnd[0]) {
+                        if(this.limit - this.position < LOOKAHEAD && !this.isEof) {
+                            break;
+                        }
+
+                        if(startsWith(this.position, this.markupEnd)) {
+                            this.markupEnd = null;
+                        }
+                    }
+                } else if(b == '<') {
+                    if(this.limit - this.position < LOOKAHEAD && !this.isEof) {
+                        break;
+                    }
+
+                    this.markupEnd = markupEnd(this.position);
+
+                    if(Objects.isNull(this.markupEnd) && isTrackStartTag(this.position)) {
+                        this.isSkipping = true;
+                        break;
+                    }
+                }
+
+                bytes[offset + count++] = b;
+                this.position++;
+            }
+
+            if(count > 0) {
+                return count;
+            }
+        }
+    }
+
+    @Override
+    public int available() {
+        return 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void skipToEndTag() {
+        while(this.position < this.limit) {
+            byte b = this.buffer[this.position];
+
+            if(Objects.nonNull(this.markupEnd)) {
+                if(b == this.markupEnd[0]) {
+                    if(this.limit - this.position < LOOKAHEAD && !this.isEof) {
+                        return;
+                    }
+
+                    if(startsWith(this.position, this.markupEnd)) {
+                        this.markupEnd = null;
+                    }
+                }
+            } else if(b == '<') {
+                if(this.limit - this.position < LOOKAHEAD && !this.isEof) {
+                    return;
+                }
+
+                this.markupEnd = markupEnd(this.position);
+                int end = Objects.isNull(this.markupEnd) ? trackEndTagEnd(this.position) : -1;
+
+                if(end > 0) {
+                    this.position = end;
+                    this.isSkipping = false;
+                    return;
+                }
+            }
+
+            this.position++;
+        }
+    }
+
+    /**
+     * Keeps at least LOOKAHEAD bytes buffered until the end of the stream, so tags never straddle a refill.
+     */
+    private void fill() throws IOException {
+        if(this.limit - this.position >= LOOKAHEAD || this.isEof) {
+            return;
+        }
+
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+        this.limit -= this.position;
+        this.position = 0;
+
+        while(this.limit < LOOKAHEAD && !this.isEof) {
+            int count = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit);
+
+            if(count < 0) {
+                this.isEof = true;
+            } else {
+                this.limit += count;
+            }
+        }
+
+        if(!this.isStarted && this.limit >= 2) {
+            this.isStarted = true;
+            this.isPassThrough = (this.buffer[0] == 0 || this.buffer[1] == 0 || (this.buffer[0] & 0xFF) == 0xFE || (this.buffer[0] & 0xFF) == 0xFF);
+        }
+    }
+
+    /**
+     * The end of the comment, CDATA section or processing instruction starting at start, or null when it is a tag.
+     */
+    private byte[] markupEnd(final int start) {
+        if(startsWith(start, COMMENT)) {
+            return COMMENT_END;
+        }
+
+        if(startsWith(start, CDATA)) {
+            return CDATA_END;
+        }
+
+        if(startsWith(start, PROCESSING_INSTRUCTION)) {
+            return PROCESSING_INSTRUCTION_END;
+        }
+
+        return null;
+    }
+
+    private boolean startsWith(final int start, final byte[] prefix) {
+        if(start + prefix.length > this.limit) {
+            return false;
+        }
+
+        for(int i = 0; i < prefix.length; i++) {
+            if(this.buffer[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isTrackStartTag(final int start) {
+        int index = nameStart(start + 1);
+
+        if(index < 0) {
+            return false;
+        }
+
+        if(this.buffer[index] == '>') {
+            return true;
+        }
+
+        if(!isWhitespace(this.buffer[index])) {
+            return false;
+        }
+
+        while(index < this.limit && this.buffer[index] != '>') {
+            index++;
+        }
+
+        return index < this.limit && this.buffer[index - 1] != '/';
+    }
+
+    /**
+     * The index just past a Track end tag starting at start, or -1.
+     */
+    private int trackEndTagEnd(final int start) {
+        if(start + 1 >= this.limit || this.buffer[start + 1] != '/') {
+            return -1;
+        }
+
+        int index = nameStart(start + 2);
+
+        if(index < 0) {
+            return -1;
+        }
+
+        while(index < this.limit && isWhitespace(this.buffer[index])) {
+            index++;
+        }
+
+        return index < this.limit && this.buffer[index] == '>' ? index + 1 : -1;
+    }
+
+    /**
+     * Matches an optionally prefixed Track name at start and returns the index after it, or -1.
+     */
+    private int nameStart(final int start) {
+        int index = start;
+
+        while(index < this.limit && isNameChar(this.buffer[index])) {
+            index++;
+        }
+
+        int name = index < this.limit && this.buffer[index] == ':' ? index + 1 : start;
+
+        if(name + TRACK.length >= this.limit) {
+            return -1;
+        }
+
+        for(int i = 0; i < TRACK.length; i++) {
+            if(this.buffer[name + i] != TRACK[i]) {
+                return -1;
+            }
+        }
+
+        return name + TRACK.length;
+    }
+
+    private static boolean isNameChar(final byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == '-' || b == '.';
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,16 @@
+package us.maukamakai.libtcx.reader;
+
+/**
+ * The child elements of a Trackpoint that TcxStreamReader can be told to decode. Elements of unrequested channels are
+ * skipped without creating any objects and are left null on the TrackpointT.
+ */
+public enum TrackpointChannel {
+    TIME,
+    POSITION,
+    ALTITUDE,
+    DISTANCE,
+    HEART_RATE,
+    CADENCE,
+    SENSOR_STATE,
+    EXTENSIONS
+}
@@ -0,0 +1,76 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Selects which Trackpoints TcxStreamReader emits, evaluated while the document streams by.
+ *
+ * The time window [from, to) is checked against the Time element before a TrackpointT is allocated, and because
+ * Trackpoints within a Track are in time order, the rest of a Track is skipped once a point at or after to is seen.
+ * Laps and Activities that start at or after to are skipped whole. The predicate runs on each fully decoded point
+ * inside the window.
+ */
+public class TrackpointFilter {
+    public static final TrackpointFilter ALL = new TrackpointFilter(Long.MIN_VALUE, Long.MAX_VALUE, null);
+
+    private final long fromEpochMillis;
+    private final long toEpochMillis;
+    private final Predicate<TrackpointT> predicate;
+
+    private TrackpointFilter(final long fromEpochMillis, final long toEpochMillis, final Predicate<TrackpointT> predicate) {
+        this.fromEpochMillis = fromEpochMillis;
+        this.toEpochMillis = toEpochMillis;
+        this.predicate = predicate;
+    }
+
+    public static TrackpointFilter between(final Instant from, final Instant to) {
+        if(Objects.isNull(from) || Objects.isNull(to)) {
+            throw new TcxReaderException("Error: from and to can not be null.");
+        }
+
+        return between(from.toEpochMilli(), to.toEpochMilli());
+    }
+
+    public static TrackpointFilter between(final long fromEpochMillis, final long toEpochMillis) {
+        if(toEpochMillis < fromEpochMillis) {
+            throw new TcxReaderException("Error: to can not be before from.");
+        }
+
+        return new TrackpointFilter(fromEpochMillis, toEpochMillis, null);
+    }
+
+    public static TrackpointFilter matching(final Predicate<TrackpointT> predicate) {
+        return ALL.and(predicate);
+    }
+
+    /**
+     * A filter with the same window that additionally requires predicate.
+     */
+    public TrackpointFilter and(final Predicate<TrackpointT> predicate) {
+        if(Objects.isNull(predicate)) {
+            throw new TcxReaderException("Error: predicate can not be null.");
+        }
+
+        return new TrackpointFilter(this.fromEpochMillis, this.toEpochMillis, Objects.isNull(this.predicate) ? predicate : this.predicate.and(predicate));
+    }
+
+    public final boolean isWindowed() {
+        return this.fromEpochMillis != Long.MIN_VALUE || this.toEpochMillis != Long.MAX_VALUE;
+    }
+
+    final boolean isBeforeWindow(final long epochMillis) {
+        return epochMillis < this.fromEpochMillis;
+    }
+
+    final boolean isPastWindow(final long epochMillis) {
+        return epochMillis >= this.toEpochMillis;
+    }
+
+    final boolean test(final TrackpointT trackpointT) {
+        return Objects.isNull(this.predicate) || this.predicate.test(trackpointT);
+    }
+}
@@ -0,0 +1,142 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Pulls activity Trackpoints off a StAX cursor one at a time.
+ *
+ * Only TrainingCenterDatabase/Activities/Activity/Lap/Track/Trackpoint is visited, every other subtree (Courses,
+ * Workouts, Folders, lap summaries, ...) is skipped without building any objects.
+ *
+ * With a TrackpointFilter window, Trackpoints are only assumed to be in time order within a Track, so a point past the
+ * window ends its Track but later Tracks and Laps are still read. Laps whose StartTime and Activities whose Id, their
+ * start time, is past the window are skipped whole. Activities need not be listed in start order, so the cursor is
+ * still read to the end of the document.
+ */
+public class TrackpointIterator implements Iterator<TrackpointT>, AutoCloseable {
+    private static final String[] PATH = {"TrainingCenterDatabase", "Activities", "Activity", "Lap", "Track", "Trackpoint"};
+    private static final int ACTIVITY_DEPTH = 3;
+    private static final int LAP_DEPTH = 4;
+
+    private final XMLStreamReader reader;
+    private final Closeable source;
+    private final TrackpointParser trackpointParser;
+    private final TrackpointFilter filter;
+    private int depth;
+    private TrackpointT next;
+    private boolean isFinished;
+
+    TrackpointIterator(final XMLStreamReader reader, final Closeable source, final TrackpointParser trackpointParser) {
+        this(reader, source, trackpointParser, TrackpointFilter.ALL);
+    }
+
+    TrackpointIterator(final XMLStreamReader reader, final Closeable source, final TrackpointParser trackpointParser, final TrackpointFilter filter) {
+        this.reader = reader;
+        this.source = source;
+        this.trackpointParser = trackpointParser;
+        this.filter = filter;
+        this.depth = 0;
+        this.isFinished = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(Objects.isNull(this.next) && !this.isFinished) {
+            this.next = advance();
+        }
+
+        return Objects.nonNull(this.next);
+    }
+
+    @Override
+    public TrackpointT next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        TrackpointT trackpointT = this.next;
+        this.next = null;
+        return trackpointT;
+    }
+
+    private TrackpointT advance() {
+        try {
+            while(this.reader.hasNext()) {
+                int event = this.reader.next();
+
+                if(event == XMLStreamConstants.END_ELEMENT) {
+                    this.depth--;
+                } else if(event == XMLStreamConstants.START_ELEMENT) {
+                    if(this.depth == ACTIVITY_DEPTH && this.filter.isWindowed() && "Id".equals(this.reader.getLocalName())) {
+                        if(this.filter.isPastWindow(this.trackpointParser.readTime(this.reader))) {
+                            skipTo(ACTIVITY_DEPTH - 1);
+                        }
+                    } else if(this.depth >= PATH.length || !PATH[this.depth].equals(this.reader.getLocalName())) {
+                        TrackpointParser.skipElement(this.reader);
+                    } else if(this.depth == ACTIVITY_DEPTH && this.filter.isWindowed() && isLapPastWindow()) {
+                        TrackpointParser.skipElement(this.reader);
+                    } else if(this.depth == PATH.length - 1) {
+                        TrackpointT trackpointT = this.trackpointParser.parse(this.reader, this.filter);
+
+                        if(Objects.nonNull(trackpointT)) {
+                            return trackpointT;
+                        }
+
+                        if(this.trackpointParser.isPastWindow()) {
+                            skipTo(LAP_DEPTH);
+                        }
+                    } else {
+                        this.depth++;
+                    }
+                }
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            close();
+            throw new TcxReaderException(String.format("Error parsing XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+
+        close();
+        return null;
+    }
+
+    private boolean isLapPastWindow() {
+        String startTime = this.reader.getAttributeValue(null, "StartTime");
+        return Objects.nonNull(startTime) && this.filter.isPastWindow(this.trackpointParser.parseEpochMillis(startTime));
+    }
+
+    /**
+     * Advances past the ends of the elements the cursor is in until it is back at depth.
+     */
+    private void skipTo(final int depth) throws XMLStreamException {
+        while(this.depth > depth) {
+            int event = this.reader.next();
+
+            if(event == XMLStreamConstants.END_ELEMENT) {
+                this.depth--;
+            } else if(event == XMLStreamConstants.START_ELEMENT) {
+                TrackpointParser.skipElement(this.reader);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.isFinished = true;
+
+        try {
+            this.reader.close();
+            this.source.close();
+        } catch (XMLStreamException | IOException e) {
+            throw new TcxReaderException(String.format("Error closing XML stream\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package us.maukamakai.libtcx.reader;
+
+import com.garmin.xmlschemas.activityextension.v2.ActivityLapExtensionT;
+import com.garmin.xmlschemas.activityextension.v2.ActivityTrackpointExtensionT;
+import com.garmin.xmlschemas.activityextension.v2.CadenceSensorTypeT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.ExtensionsT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.HeartRateInBeatsPerMinuteT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.PositionT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.SensorStateT;
+import com.garmin.xmlschemas.trainingcenterdatabase.v2.TrackpointT;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds a single TrackpointT directly from a StAX cursor positioned on a Trackpoint start element.
+ *
+ * Instances are cheap but not thread-safe, each stream should use its own parser.
+ */
+class TrackpointParser {
+    static final String ACTIVITY_EXTENSION_NAMESPACE = "http://www.garmin.com/xmlschemas/ActivityExtension/v2";
+    private static final QName TPX = new QName(ACTIVITY_EXTENSION_NAMESPACE, "TPX");
+    private static final QName LX = new QName(ACTIVITY_EXTENSION_NAMESPACE, "LX");
+
+    private final DatatypeFactory datatypeFactory;
+    private final StringBuilder text;
+    private final int[] dateTimeFields;
+    private final boolean isTime;
+    private final boolean isPosition;
+    private final boolean isAltitude;
+    private final boolean isDistance;
+    private final boolean isHeartRate;
+    private final boolean isCadence;
+    private final boolean isSensorState;
+    private final boolean isExtensions;
+    private Document document;
+    private boolean isPastWindow;
+
+    TrackpointParser(final DatatypeFactory datatypeFactory) {
+        this(datatypeFactory, EnumSet.allOf(TrackpointChannel.class));
+    }
+
+    TrackpointParser(final DatatypeFactory datatypeFactory, final Set<TrackpointChannel> channels) {
+        this.datatypeFactory = datatypeFactory;
+        this.text = new StringBuilder(32);
+        this.dateTimeFields = new int[TcxDateTime.FIELD_COUNT];
+        this.isTime = channels.contains(TrackpointChannel.TIME);
+        this.isPosition = channels.contains(TrackpointChannel.POSITION);
+        this.isAltitude = channels.contains(TrackpointChannel.ALTITUDE);
+        this.isDistance = channels.contains(TrackpointChannel.DISTANCE);
+        this.isHeartRate = channels.contains(TrackpointChannel.HEART_RATE);
+        this.isCadence = channels.contains(TrackpointChannel.CADENCE);
+        this.isSensorState = channels.contains(TrackpointChannel.SENSOR_STATE);
+        this.isExtensions = channels.contains(TrackpointChannel.EXTENSIONS);
+    }
+
+    /**
+     * Parses the Trackpoint the reader is positioned on and leaves the reader on its end element.
+     */
+    TrackpointT parse(final XMLStreamReader reader) throws XMLStreamException {
+        return parse(reader, TrackpointFilter.ALL);
+    }
+
+    /**
+     * Like parse, but returns null for points the filter rejects. A point outside the time window is rejected as soon
+     * as its Time has been read, before a TrackpointT is allocated, and isPastWindow then tells whether it was
+     * after the window.
+     */
+    TrackpointT parse(final XMLStreamReader reader, final TrackpointFilter filter) throws XMLStreamException {
+        boolean isWindowed = filter.isWindowed();
+        boolean hasTime = false;
+        TrackpointT trackpointT = isWindowed ? null : new TrackpointT();
+        this.isPastWindow = false;
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if(isWindowed && Objects.isNull(trackpointT)) {
+                if(!"Time".equals(reader.getLocalName())) {
+                    skipElement(reader);
+                    continue;
+                }
+
+                long epochMillis = readTime(reader);
+
+                if(filter.isBeforeWindow(epochMillis) || filter.isPastWindow(epochMillis)) {
+                    this.isPastWindow = filter.isPastWindow(epochMillis);
+                    skipElement(reader);
+                    return null;
+                }
+
+                hasTime = true;
+                trackpointT = new TrackpointT();
+
+                if(this.isTime) {
+                    trackpointT.setTime(toCalendar(this.text));
+                }
+                continue;
+            }
+
+            switch(reader.getLocalName()) {
+                case "Time":
+                    if(this.isTime) {
+                        readTime(reader);
+                        trackpointT.setTime(toCalendar(this.text));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "Position":
+                    if(this.isPosition) {
+                        trackpointT.setPosition(parsePosition(reader));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "AltitudeMeters":
+                    if(this.isAltitude) {
+                        trackpointT.setAltitudeMeters(Double.parseDouble(reader.getElementText()));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "DistanceMeters":
+                    if(this.isDistance) {
+                        trackpointT.setDistanceMeters(Double.parseDouble(reader.getElementText()));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "HeartRateBpm":
+                    if(this.isHeartRate) {
+                        trackpointT.setHeartRateBpm(parseHeartRate(reader));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "Cadence":
+                    if(this.isCadence) {
+                        trackpointT.setCadence(Short.parseShort(reader.getElementText().trim()));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "SensorState":
+                    if(this.isSensorState) {
+                        trackpointT.setSensorState(SensorStateT.fromValue(reader.getElementText().trim()));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "Extensions":
+                    if(this.isExtensions) {
+                        trackpointT.setExtensions(parseExtensions(reader));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
+        if(isWindowed && !hasTime) {
+            return null;
+        }
+
+        return filter.test(trackpointT) ? trackpointT : null;
+    }
+
+    boolean isPastWindow() {
+        return this.isPastWindow;
+    }
+
+    /**
+     * Reads a Time, or any other xsd:dateTime element, into the reused text buffer and split fields, returning its
+     * epoch millis.
+     */
+    long readTime(final XMLStreamReader reader) throws XMLStreamException {
+        return parseEpochMillis(readText(reader));
+    }
+
+    /**
+     * Parses an xsd:dateTime value such as a Lap StartTime into the reused split fields.
+     */
+    long parseEpochMillis(final CharSequence time) {
+        if(TcxDateTime.parseFields(time, this.dateTimeFields)) {
+            return TcxDateTime.toEpochMillis(this.dateTimeFields);
+        }
+
+        this.dateTimeFields[TcxDateTime.FRACTION_DIGITS] = Integer.MAX_VALUE;
+        return TcxDateTime.parseEpochMillis(time);
+    }
+
+    /**
+     * Parses an xsd:dateTime value such as an Activity Id or Lap StartTime.
+     */
+    XMLGregorianCalendar parseDateTime(final CharSequence text) {
+        if(!TcxDateTime.parseFields(text, this.dateTimeFields)) {
+            this.dateTimeFields[TcxDateTime.FRACTION_DIGITS] = Integer.MAX_VALUE;
+        }
+
+        return toCalendar(text);
+    }
+
+    /**
+     * Builds the calendar for text from the fields it was last split into, which skips the much slower lexical parse
+     * in DatatypeFactory.
+     */
+    private XMLGregorianCalendar toCalendar(final CharSequence text) {
+        int[] fields = this.dateTimeFields;
+
+        if(fields[TcxDateTime.FRACTION_DIGITS] <= 3) {
+            return this.datatypeFactory.newXMLGregorianCalendar(fields[TcxDateTime.YEAR],
+                                                                fields[TcxDateTime.MONTH],
+                                                                fields[TcxDateTime.DAY],
+                                                                fields[TcxDateTime.HOUR],
+                                                                fields[TcxDateTime.MINUTE],
+                                                                fields[TcxDateTime.SECOND],
+                                                                fields[TcxDateTime.FRACTION_DIGITS] == 0 ? TcxDateTime.UNDEFINED : fields[TcxDateTime.NANOS] / 1_000_000,
+                                                                fields[TcxDateTime.OFFSET_MINUTES]);
+        }
+
+        return this.datatypeFactory.newXMLGregorianCalendar(text.toString().trim());
+    }
+
+    /**
+     * Like XMLStreamReader.getElementText, but collects into a reused buffer instead of allocating a String.
+     */
+    private CharSequence readText(final XMLStreamReader reader) throws XMLStreamException {
+        this.text.setLength(0);
+
+        while(true) {
+            switch(reader.next()) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    this.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return this.text;
+                case XMLStreamConstants.START_ELEMENT:
+                    throw new XMLStreamException("Unexpected element in text-only element", reader.getLocation());
+                default:
+                    break;
+            }
+        }
+    }
+
+    private PositionT parsePosition(final XMLStreamReader reader) throws XMLStreamException {
+        PositionT positionT = new PositionT();
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "LatitudeDegrees":
+                    positionT.setLatitudeDegrees(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "LongitudeDegrees":
+                    positionT.setLongitudeDegrees(Double.parseDouble(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
+        return positionT;
+    }
+
+    private HeartRateInBeatsPerMinuteT parseHeartRate(final XMLStreamReader reader) throws XMLStreamException {
+        HeartRateInBeatsPerMinuteT heartRateT = new HeartRateInBeatsPerMinuteT();
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if("Value".equals(reader.getLocalName())) {
+                heartRateT.setValue(Short.parseShort(reader.getElementText().trim()));
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        return heartRateT;
+    }
+
+    /**
+     * ActivityExtension v2 TPX and LX elements are decoded into their typed classes, wrapped in a JAXBElement as JAXB
+     * does for lax content. Anything else is copied into a DOM Element.
+     */
+    ExtensionsT parseExtensions(final XMLStreamReader reader) throws XMLStreamException {
+        ExtensionsT extensionsT = new ExtensionsT();
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if(ACTIVITY_EXTENSION_NAMESPACE.equals(reader.getNamespaceURI())) {
+                if("TPX".equals(reader.getLocalName())) {
+                    extensionsT.getAny().add(new JAXBElement<>(TPX, ActivityTrackpointExtensionT.class, null, parseTrackpointExtension(reader)));
+                    continue;
+                }
+
+                if("LX".equals(reader.getLocalName())) {
+                    extensionsT.getAny().add(new JAXBElement<>(LX, ActivityLapExtensionT.class, null, parseLapExtension(reader)));
+                    continue;
+                }
+            }
+
+            extensionsT.getAny().add(readElement(reader));
+        }
+
+        return extensionsT;
+    }
+
+    private ActivityTrackpointExtensionT parseTrackpointExtension(final XMLStreamReader reader) throws XMLStreamException {
+        ActivityTrackpointExtensionT trackpointExtensionT = new ActivityTrackpointExtensionT();
+        trackpointExtensionT.setCadenceSensor(parseCadenceSensor(reader));
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "Speed":
+                    trackpointExtensionT.setSpeed(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "RunCadence":
+                    trackpointExtensionT.setRunCadence(Short.parseShort(reader.getElementText().trim()));
+                    break;
+                case "Watts":
+                    trackpointExtensionT.setWatts(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "Extensions":
+                    trackpointExtensionT.setExtensions(parseNestedExtensions(reader));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
+        return trackpointExtensionT;
+    }
+
+    private ActivityLapExtensionT parseLapExtension(final XMLStreamReader reader) throws XMLStreamException {
+        ActivityLapExtensionT lapExtensionT = new ActivityLapExtensionT();
+        lapExtensionT.setCadenceSensor(parseCadenceSensor(reader));
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch(reader.getLocalName()) {
+                case "AvgSpeed":
+                    lapExtensionT.setAvgSpeed(Double.parseDouble(reader.getElementText()));
+                    break;
+                case "MaxBikeCadence":
+                    lapExtensionT.setMaxBikeCadence(Short.parseShort(reader.getElementText().trim()));
+                    break;
+                case "AvgRunCadence":
+                    lapExtensionT.setAvgRunCadence(Short.parseShort(reader.getElementText().trim()));
+                    break;
+                case "MaxRunCadence":
+                    lapExtensionT.setMaxRunCadence(Short.parseShort(reader.getElementText().trim()));
+                    break;
+                case "Steps":
+                    lapExtensionT.setSteps(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "AvgWatts":
+                    lapExtensionT.setAvgWatts(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "MaxWatts":
+                    lapExtensionT.setMaxWatts(Integer.parseInt(reader.getElementText().trim()));
+                    break;
+                case "Extensions":
+                    lapExtensionT.setExtensions(parseNestedExtensions(reader));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
+        return lapExtensionT;
+    }
+
+    private static CadenceSensorTypeT parseCadenceSensor(final XMLStreamReader reader) {
+        String cadenceSensor = reader.getAttributeValue(null, "CadenceSensor");
+        return Objects.isNull(cadenceSensor) ? null : CadenceSensorTypeT.fromValue(cadenceSensor.trim());
+    }
+
+    private com.garmin.xmlschemas.activityextension.v2.ExtensionsT parseNestedExtensions(final XMLStreamReader reader) throws XMLStreamException {
+        com.garmin.xmlschemas.activityextension.v2.ExtensionsT extensionsT = new com.garmin.xmlschemas.activityextension.v2.ExtensionsT();
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            extensionsT.getAny().add(readElement(reader));
+        }
+
+        return extensionsT;
+    }
+
+    /**
+     * Copies the current element subtree into a DOM Element, which is what JAXB hands back for xsd:any content.
+     * Like JAXB, whitespace between child elements is dropped.
+     */
+    private Element readElement(final XMLStreamReader reader) throws XMLStreamException {
+        Element element = getDocument().createElementNS(reader.getNamespaceURI(), qualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+        for(int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(reader.getAttributeNamespace(i),
+                                   qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                                   reader.getAttributeValue(i));
+        }
+
+        while(true) {
+            switch(reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    element.appendChild(readElement(reader));
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    if(!reader.isWhiteSpace()) {
+                        element.appendChild(getDocument().createTextNode(reader.getText()));
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return element;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private Document getDocument() {
+        if(Objects.isNull(this.document)) {
+            try {
+                DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+                documentBuilderFactory.setNamespaceAware(true);
+                this.document = documentBuilderFactory.newDocumentBuilder().newDocument();
+            } catch (ParserConfigurationException e) {
+                throw new TcxReaderException(String.format("Error creating DOM document\nMessage: %s", e.getMessage()), e.fillInStackTrace());
+            }
+        }
+
+        return this.document;
+    }
+
+    private static String qualifiedName(final String prefix, final String localName) {
+        return Objects.isNull(prefix) || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * Advances the reader past the end of the element it is currently positioned on.
+     */
+    static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+
+        while(depth > 0) {
+            int event = reader.next();
+
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if(event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
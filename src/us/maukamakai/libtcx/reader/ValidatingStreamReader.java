@@ -0,0 +1,192 @@
+package us.maukamakai.libtcx.reader;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.ValidatorHandler;
+import java.util.Objects;
+
+/**
+ * Replays every event pulled through it to a ValidatorHandler as SAX, so a document is validated in the same pass that
+ * binds it. Schema errors surface as XMLStreamExceptions from the call that pulled the offending event.
+ *
+ * nextTag and getElementText are reimplemented on top of next, the delegate's own versions would skip the handler.
+ */
+class ValidatingStreamReader extends StreamReaderDelegate {
+    private final ValidatorHandler validatorHandler;
+    private final AttributesImpl attributes;
+
+    ValidatingStreamReader(final XMLStreamReader reader, final ValidatorHandler validatorHandler) throws XMLStreamException {
+        super(reader);
+        this.validatorHandler = validatorHandler;
+        this.attributes = new AttributesImpl();
+        this.validatorHandler.setDocumentLocator(new StreamLocator());
+
+        try {
+            this.validatorHandler.startDocument();
+        } catch (SAXException e) {
+            throw toStreamException(e);
+        }
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int eventType = super.next();
+
+        try {
+            switch(eventType) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    this.validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    this.validatorHandler.endDocument();
+                    break;
+                default:
+            }
+        } catch (SAXException e) {
+            throw toStreamException(e);
+        }
+
+        return eventType;
+    }
+
+    private void startElement() throws SAXException {
+        for(int i = 0; i < getNamespaceCount(); i++) {
+            this.validatorHandler.startPrefixMapping(nullToEmpty(getNamespacePrefix(i)), nullToEmpty(getNamespaceURI(i)));
+        }
+
+        this.attributes.clear();
+
+        for(int i = 0; i < getAttributeCount(); i++) {
+            String prefix = getAttributePrefix(i);
+            String localName = getAttributeLocalName(i);
+            this.attributes.addAttribute(nullToEmpty(getAttributeNamespace(i)),
+                                         localName,
+                                         isEmpty(prefix) ? localName : prefix + ":" + localName,
+                                         getAttributeType(i),
+                                         getAttributeValue(i));
+        }
+
+        this.validatorHandler.startElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName(), this.attributes);
+    }
+
+    private void endElement() throws SAXException {
+        this.validatorHandler.endElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName());
+
+        for(int i = 0; i < getNamespaceCount(); i++) {
+            this.validatorHandler.endPrefixMapping(nullToEmpty(getNamespacePrefix(i)));
+        }
+    }
+
+    private String qualifiedName() {
+        String prefix = getPrefix();
+        return isEmpty(prefix) ? getLocalName() : prefix + ":" + getLocalName();
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int eventType = next();
+
+        while((eventType == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                || (eventType == XMLStreamConstants.CDATA && isWhiteSpace())
+                || eventType == XMLStreamConstants.SPACE
+                || eventType == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || eventType == XMLStreamConstants.COMMENT) {
+            eventType = next();
+        }
+
+        if(eventType != XMLStreamConstants.START_ELEMENT && eventType != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("expected start or end tag", getLocation());
+        }
+
+        return eventType;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if(getEventType() != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("parser must be on START_ELEMENT to read next text", getLocation());
+        }
+
+        String text = null;
+        StringBuilder builder = null;
+        int eventType = next();
+
+        while(eventType != XMLStreamConstants.END_ELEMENT) {
+            if(eventType == XMLStreamConstants.CHARACTERS || eventType == XMLStreamConstants.CDATA
+                    || eventType == XMLStreamConstants.SPACE || eventType == XMLStreamConstants.ENTITY_REFERENCE) {
+                // Almost every element has a single text event, only concatenate when there are more.
+                if(Objects.isNull(text)) {
+                    text = getText();
+                } else {
+                    if(Objects.isNull(builder)) {
+                        builder = new StringBuilder(text);
+                    }
+                    builder.append(getText());
+                }
+            } else if(eventType == XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("element text content may not contain START_ELEMENT", getLocation());
+            } else if(eventType == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("unexpected end of document when reading element text content", getLocation());
+            }
+
+            eventType = next();
+        }
+
+        if(Objects.nonNull(builder)) {
+            return builder.toString();
+        }
+
+        return Objects.isNull(text) ? "" : text;
+    }
+
+    private XMLStreamException toStreamException(final SAXException e) {
+        return new XMLStreamException(String.format("Schema validation failed: %s", e.getMessage()), getLocation(), e);
+    }
+
+    private static boolean isEmpty(final String value) {
+        return Objects.isNull(value) || value.isEmpty();
+    }
+
+    private static String nullToEmpty(final String value) {
+        return Objects.isNull(value) ? "" : value;
+    }
+
+    /**
+     * Lets the validator report positions in the underlying document.
+     */
+    private class StreamLocator implements Locator {
+        @Override
+        public String getPublicId() {
+            return getLocation().getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            return getLocation().getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            return getLocation().getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return getLocation().getColumnNumber();
+        }
+    }
+}